@@ -0,0 +1,204 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records the files processed in directory mode so that later runs only examine
+ * new and changed files.  For each file the manifest holds the absolute path, the
+ * size, fslastmodified and md5checksum reported by FITS and the name of the output
+ * file in the output directory.
+ * <p>
+ * The manifest is a UTF-8 text file with one tab separated line per file.
+ */
+public class BatchManifest {
+
+	private File file;
+	private ConcurrentMap<String,Entry> entries = new ConcurrentHashMap<String,Entry>();
+
+	/**
+	 * Reads the manifest if it exists
+	 * @param file
+	 * @throws IOException
+	 */
+	public BatchManifest(File file) throws IOException {
+		this.file = file;
+		if(file.exists()) {
+			load();
+		}
+	}
+
+	public Entry get(String path) {
+		return entries.get(path);
+	}
+
+	public void put(Entry entry) {
+		entries.put(entry.path,entry);
+	}
+
+	public void remove(String path) {
+		entries.remove(path);
+	}
+
+	public List<Entry> getEntries() {
+		return new ArrayList<Entry>(entries.values());
+	}
+
+	/**
+	 * Writes the manifest, replacing the previous one only once it is complete
+	 * @throws IOException
+	 */
+	public void save() throws IOException {
+		File tmp = new File(file.getPath()+".tmp");
+		Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp),"UTF-8"));
+		try {
+			for(Entry e : entries.values()) {
+				out.write(e.size+"\t"+e.lastModified+"\t"+escape(e.checksum)+"\t"+escape(e.outputFile)+"\t"+escape(e.path)+"\n");
+			}
+		}
+		finally {
+			out.close();
+		}
+		file.delete();
+		if(!tmp.renameTo(file)) {
+			throw new IOException("Could not replace "+file.getPath());
+		}
+	}
+
+	private void load() throws IOException {
+		BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file),"UTF-8"));
+		try {
+			String line;
+			while((line = in.readLine()) != null) {
+				String[] fields = line.split("\t");
+				if(fields.length != 5) {
+					continue;
+				}
+				try {
+					Entry e = new Entry(unescape(fields[4]),Long.parseLong(fields[0]),Long.parseLong(fields[1]));
+					e.checksum = unescape(fields[2]);
+					e.outputFile = unescape(fields[3]);
+					put(e);
+				}
+				catch(NumberFormatException ex) {
+					//skip damaged lines, the files will be examined again
+				}
+			}
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private static String escape(String s) {
+		if(s == null) {
+			return "";
+		}
+		return s.replace("\\","\\\\").replace("\t","\\t").replace("\n","\\n").replace("\r","\\r");
+	}
+
+	private static String unescape(String s) {
+		if(s.length() == 0) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder(s.length());
+		for(int i=0;i<s.length();i++) {
+			char c = s.charAt(i);
+			if(c == '\\' && i+1 < s.length()) {
+				char next = s.charAt(++i);
+				switch(next) {
+					case 't': sb.append('\t'); break;
+					case 'n': sb.append('\n'); break;
+					case 'r': sb.append('\r'); break;
+					default: sb.append(next);
+				}
+			}
+			else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	public static class Entry {
+		private String path;
+		private long size;
+		private long lastModified;
+		private String checksum;
+		private String outputFile;
+
+		public Entry(String path, long size, long lastModified) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		public String getPath() {
+			return path;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		public String getChecksum() {
+			return checksum;
+		}
+
+		public void setChecksum(String checksum) {
+			this.checksum = checksum;
+		}
+
+		/**
+		 * @return name of the output file in the output directory
+		 */
+		public String getOutputFile() {
+			return outputFile;
+		}
+
+		public void setOutputFile(String outputFile) {
+			this.outputFile = outputFile;
+		}
+
+		/**
+		 * @return true if the file has the same size and modification time as when it was examined
+		 */
+		public boolean isUnchanged(long size, long lastModified) {
+			return this.size == size && this.lastModified == lastModified;
+		}
+	}
+
+}
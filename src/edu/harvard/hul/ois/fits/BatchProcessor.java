@@ -0,0 +1,437 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jdom.Element;
+import org.jdom.Namespace;
+
+import edu.harvard.hul.ois.fits.exceptions.FitsException;
+
+/**
+ * Processes a directory of files as a pipeline.  The calling thread walks the
+ * directory and queues each file as it is found, a set of worker threads examine and consolidate
+ * the queued files, and a set of output threads serialize the results.  The stages
+ * are connected by bounded queues so traversal never runs far ahead of examination.
+ * The number of files examined at once is set by process.file-threads in fits.xml.
+ * <p>
+ * Traversal is lazy, so a directory with a very large number of entries is never
+ * held in memory as a whole.  Files can be selected with include and exclude globs
+ * (see {@link java.nio.file.FileSystem#getPathMatcher(String)}) which are matched
+ * against both the file name and the path relative to the input directory.
+ * <p>
+ * In incremental mode a {@link BatchManifest} in the output directory records the
+ * files processed, and files with the same size and modification time as in the
+ * previous run are skipped.  A changed file replaces its previous output, and the
+ * outputs of files that no longer exist can be removed.
+ */
+public class BatchProcessor {
+
+	//marks the end of the work in a queue
+	private final static BatchItem END = new BatchItem(null,null,null);
+	public final static String MANIFEST_FILE = "fits-manifest.txt";
+	private final static Namespace ns = Namespace.getNamespace(Fits.XML_NAMESPACE);
+
+	private Fits fits;
+	private File outputDir;
+	private boolean recursive;
+	private boolean standardSchema;
+	private boolean standardCombinedFormat;
+	private int fileThreads;
+	private int outputThreads;
+	private PathMatcher include;
+	private PathMatcher exclude;
+	private int maxDepth = Integer.MAX_VALUE;
+	private BatchManifest manifest;
+	private boolean removeDeleted;
+
+	private BlockingQueue<BatchItem> examineQueue;
+	private BlockingQueue<BatchItem> outputQueue;
+	private Set<String> reservedOutputs = new HashSet<String>();
+	private AtomicInteger processed = new AtomicInteger();
+	private AtomicInteger failed = new AtomicInteger();
+	private AtomicInteger skipped = new AtomicInteger();
+	private AtomicInteger removed = new AtomicInteger();
+
+	public BatchProcessor(Fits fits, File outputDir, boolean recursive, boolean standardSchema, boolean standardCombinedFormat) {
+		this(fits,outputDir,recursive,standardSchema,standardCombinedFormat,Fits.fileThreads);
+	}
+
+	public BatchProcessor(Fits fits, File outputDir, boolean recursive, boolean standardSchema, boolean standardCombinedFormat, int fileThreads) {
+		this.fits = fits;
+		this.outputDir = outputDir;
+		this.recursive = recursive;
+		this.standardSchema = standardSchema;
+		this.standardCombinedFormat = standardCombinedFormat;
+		this.fileThreads = Math.max(1,fileThreads);
+		//serialization is cheap compared to examination so fewer threads are needed
+		this.outputThreads = Math.max(1,this.fileThreads/4);
+		examineQueue = new ArrayBlockingQueue<BatchItem>(this.fileThreads*2);
+		outputQueue = new ArrayBlockingQueue<BatchItem>(this.fileThreads*2);
+	}
+
+	/**
+	 * Examines all files in the directory and writes the results to the output directory.
+	 * Returns once every file has been written.  Files that can not be processed are
+	 * reported to standard error and skipped.
+	 * @param inputDir the directory to process
+	 * @throws FitsException
+	 */
+	public void process(File inputDir) throws FitsException {
+		Thread[] examiners = new Thread[fileThreads];
+		for(int i=0;i<examiners.length;i++) {
+			examiners[i] = new Thread(new Examiner(),"FITS examine "+(i+1));
+			examiners[i].start();
+		}
+		Thread[] writers = new Thread[outputThreads];
+		for(int i=0;i<writers.length;i++) {
+			writers[i] = new Thread(new Writer(),"FITS output "+(i+1));
+			writers[i].start();
+		}
+
+		Set<String> seen = new HashSet<String>();
+		try {
+			try {
+				walk(inputDir,seen);
+			}
+			finally {
+				//let the examiners finish the queued files, then the writers
+				for(int i=0;i<examiners.length;i++) {
+					examineQueue.put(END);
+				}
+				join(examiners);
+				for(int i=0;i<writers.length;i++) {
+					outputQueue.put(END);
+				}
+				join(writers);
+			}
+		}
+		catch(InterruptedException e) {
+			interrupt(examiners);
+			interrupt(writers);
+			Thread.currentThread().interrupt();
+			throw new FitsException("Interrupted while processing "+inputDir.getPath(),e);
+		}
+		finally {
+			//keep the files finished so far even if the run was cut short
+			if(manifest != null) {
+				saveManifest();
+			}
+		}
+		if(manifest != null && removeDeleted) {
+			removeDeleted(seen);
+			saveManifest();
+		}
+	}
+
+	/**
+	 * Only examine files that are new or have changed since the last run with the
+	 * same output directory
+	 * @param removeDeleted also remove the output of files that no longer exist
+	 * @throws FitsException if the manifest can not be read
+	 */
+	public void setIncremental(boolean removeDeleted) throws FitsException {
+		File manifestFile = new File(outputDir,MANIFEST_FILE);
+		try {
+			manifest = new BatchManifest(manifestFile);
+		} catch (IOException e) {
+			throw new FitsException("Error reading "+manifestFile.getPath(),e);
+		}
+		this.removeDeleted = removeDeleted;
+	}
+
+	/**
+	 * Only process files matching the glob
+	 * @param glob a glob such as *.tif, or null to process all files
+	 */
+	public void setInclude(String glob) {
+		include = toMatcher(glob);
+	}
+
+	/**
+	 * Skip files and directories matching the glob
+	 * @param glob a glob such as **&#47;.svn, or null to skip nothing
+	 */
+	public void setExclude(String glob) {
+		exclude = toMatcher(glob);
+	}
+
+	/**
+	 * Limit how many levels of sub directories are processed when recursive.  A depth
+	 * of 1 only processes the files directly inside the input directory.
+	 * @param maxDepth
+	 */
+	public void setMaxDepth(int maxDepth) {
+		this.maxDepth = Math.max(1,maxDepth);
+	}
+
+	public int getProcessedCount() {
+		return processed.get();
+	}
+
+	public int getFailedCount() {
+		return failed.get();
+	}
+
+	/**
+	 * @return number of unchanged files skipped in incremental mode
+	 */
+	public int getSkippedCount() {
+		return skipped.get();
+	}
+
+	/**
+	 * @return number of outputs removed because their file no longer exists
+	 */
+	public int getRemovedCount() {
+		return removed.get();
+	}
+
+	private void walk(File dir, final Set<String> seen) throws InterruptedException {
+		final Path root = dir.toPath();
+		//links are followed, as File.isFile and isDirectory did
+		int depth = recursive ? maxDepth : 1;
+		try {
+			Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), depth, new SimpleFileVisitor<Path>() {
+				public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attrs) {
+					if(!path.equals(root) && matches(exclude,root,path)) {
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+					return FileVisitResult.CONTINUE;
+				}
+				public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+					//directories at the maximum depth are visited as files
+					if(!attrs.isRegularFile() || matches(exclude,root,path)
+							|| (include != null && !matches(include,root,path))) {
+						return FileVisitResult.CONTINUE;
+					}
+					File f = path.toFile();
+					String outputFile = null;
+					if(manifest != null) {
+						String key = f.getAbsolutePath();
+						seen.add(key);
+						BatchManifest.Entry entry = manifest.get(key);
+						if(entry != null && entry.getOutputFile() != null) {
+							File previousOutput = new File(outputDir,entry.getOutputFile());
+							if(entry.isUnchanged(attrs.size(),attrs.lastModifiedTime().toMillis()) && previousOutput.exists()) {
+								skipped.incrementAndGet();
+								return FileVisitResult.CONTINUE;
+							}
+							//replace the output of the previous run
+							outputFile = previousOutput.getPath();
+							reservedOutputs.add(outputFile);
+						}
+					}
+					if(outputFile == null) {
+						outputFile = reserveOutputFile(f);
+					}
+					BatchManifest.Entry entry = new BatchManifest.Entry(f.getAbsolutePath(),attrs.size(),attrs.lastModifiedTime().toMillis());
+					try {
+						examineQueue.put(new BatchItem(f,outputFile,entry));
+					}
+					catch(InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return FileVisitResult.TERMINATE;
+					}
+					return FileVisitResult.CONTINUE;
+				}
+				public FileVisitResult visitFileFailed(Path path, IOException e) {
+					if(e instanceof FileSystemLoopException) {
+						System.err.println("Error: skipping "+path+", a link to a directory it is in");
+						return FileVisitResult.CONTINUE;
+					}
+					System.err.println("Error: could not read "+path+": "+e.getMessage());
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		catch(IOException e) {
+			System.err.println("Error: could not read directory "+dir.getPath()+": "+e.getMessage());
+		}
+		if(Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+	}
+
+	private static PathMatcher toMatcher(String glob) {
+		if(glob == null || glob.length() == 0) {
+			return null;
+		}
+		return FileSystems.getDefault().getPathMatcher("glob:"+glob);
+	}
+
+	private static boolean matches(PathMatcher matcher, Path root, Path path) {
+		if(matcher == null) {
+			return false;
+		}
+		return matcher.matches(path.getFileName()) || matcher.matches(root.relativize(path));
+	}
+
+	/* Picks a unique output file name.  Only called from the traversal thread so
+	 * names are assigned in the same order as the files are found. */
+	private String reserveOutputFile(File f) {
+		String outputFile = outputDir.getPath() + File.separator + f.getName() + ".fits.xml";
+		int cnt = 1;
+		while(reservedOutputs.contains(outputFile) || new File(outputFile).exists()) {
+			outputFile = outputDir.getPath() + File.separator + f.getName() + "-" + cnt + ".fits.xml";
+			cnt++;
+		}
+		reservedOutputs.add(outputFile);
+		return outputFile;
+	}
+
+	/* Removes the outputs of files in the manifest that no longer exist.  Files
+	 * that exist but were not found by this run, because of include, exclude or
+	 * depth settings, are left alone. */
+	private void removeDeleted(Set<String> seen) {
+		for(BatchManifest.Entry entry : manifest.getEntries()) {
+			if(seen.contains(entry.getPath()) || new File(entry.getPath()).exists()) {
+				continue;
+			}
+			if(entry.getOutputFile() != null) {
+				File output = new File(outputDir,entry.getOutputFile());
+				if(output.exists() && !output.delete()) {
+					System.err.println("Error: could not remove "+output.getPath());
+					continue;
+				}
+			}
+			manifest.remove(entry.getPath());
+			removed.incrementAndGet();
+		}
+	}
+
+	private void saveManifest() {
+		try {
+			manifest.save();
+		}
+		catch(IOException e) {
+			System.err.println("Error: could not write "+MANIFEST_FILE+": "+e.getMessage());
+		}
+	}
+
+	/* The checksum reported by FITS, if any */
+	private static String getChecksum(FitsOutput result) {
+		Element fileinfo = result.getFitsXml().getRootElement().getChild("fileinfo",ns);
+		if(fileinfo == null) {
+			return null;
+		}
+		return fileinfo.getChildText("md5checksum",ns);
+	}
+
+	private void join(Thread[] threads) throws InterruptedException {
+		for(Thread thread : threads) {
+			thread.join();
+		}
+	}
+
+	private void interrupt(Thread[] threads) {
+		for(Thread thread : threads) {
+			thread.interrupt();
+		}
+	}
+
+	private void reportFailure(BatchItem item, Throwable e) {
+		failed.incrementAndGet();
+		String message = e.getMessage() != null ? e.getMessage() : e.toString();
+		System.err.println("Error: could not process "+item.input.getPath()+": "+message);
+	}
+
+	private class Examiner implements Runnable {
+		public void run() {
+			try {
+				BatchItem item;
+				while((item = examineQueue.take()) != END) {
+					try {
+						item.result = fits.doSingleFile(item.input);
+						outputQueue.put(item);
+					}
+					catch(InterruptedException e) {
+						throw e;
+					}
+					catch(Throwable e) {
+						//an Error must not end the thread or the other stages wait for it forever
+						reportFailure(item,e);
+					}
+				}
+			}
+			catch(InterruptedException e) {
+				//batch was cancelled
+			}
+		}
+	}
+
+	private class Writer implements Runnable {
+		public void run() {
+			try {
+				BatchItem item;
+				while((item = outputQueue.take()) != END) {
+					try {
+						if(manifest != null) {
+							item.entry.setChecksum(getChecksum(item.result));
+						}
+						fits.outputResults(item.result,item.outputFile,standardSchema,standardCombinedFormat,true);
+						processed.incrementAndGet();
+						if(manifest != null) {
+							item.entry.setOutputFile(new File(item.outputFile).getName());
+							manifest.put(item.entry);
+						}
+					}
+					catch(Throwable e) {
+						reportFailure(item,e);
+					}
+				}
+			}
+			catch(InterruptedException e) {
+				//batch was cancelled
+			}
+		}
+	}
+
+	private static class BatchItem {
+		private File input;
+		private String outputFile;
+		private FitsOutput result;
+		//recorded in the manifest once the output is written
+		private BatchManifest.Entry entry;
+
+		private BatchItem(File input, String outputFile, BatchManifest.Entry entry) {
+			this.input = input;
+			this.outputFile = outputFile;
+			this.entry = entry;
+		}
+	}
+
+}
@@ -1,526 +1,721 @@
-/* 
- * Copyright 2009 Harvard University Library
- * 
- * This file is part of FITS (File Information Tool Set).
- * 
- * FITS is free software: you can redistribute it and/or modify
- * it under the terms of the GNU Lesser General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- * 
- * FITS is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU Lesser General Public License for more details.
- * 
- * You should have received a copy of the GNU Lesser General Public License
- * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
- */
-package edu.harvard.hul.ois.fits;
-
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.NoSuchElementException;
-
-import javax.xml.stream.XMLOutputFactory;
-import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamWriter;
-import javax.xml.transform.Result;
-import javax.xml.transform.Source;
-import javax.xml.transform.Templates;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.transform.stream.StreamSource;
-
-import org.apache.commons.cli.CommandLine;
-import org.apache.commons.cli.CommandLineParser;
-import org.apache.commons.cli.GnuParser;
-import org.apache.commons.cli.HelpFormatter;
-import org.apache.commons.cli.Option;
-import org.apache.commons.cli.OptionGroup;
-import org.apache.commons.cli.Options;
-import org.apache.commons.cli.ParseException;
-import org.apache.commons.configuration.ConfigurationException;
-import org.apache.commons.configuration.XMLConfiguration;
-import org.apache.log4j.Level;
-import org.apache.log4j.Logger;
-import org.jdom.Document;
-import org.jdom.output.Format;
-import org.jdom.output.XMLOutputter;
-
-import edu.harvard.hul.ois.fits.consolidation.ToolOutputConsolidator;
-import edu.harvard.hul.ois.fits.exceptions.FitsConfigurationException;
-import edu.harvard.hul.ois.fits.exceptions.FitsException;
-
-import edu.harvard.hul.ois.fits.mapping.FitsXmlMapper;
-import edu.harvard.hul.ois.fits.tools.Tool;
-import edu.harvard.hul.ois.fits.tools.Tool.RunStatus;
-import edu.harvard.hul.ois.fits.tools.ToolBelt;
-import edu.harvard.hul.ois.fits.tools.ToolOutput;
-import edu.harvard.hul.ois.ots.schemas.XmlContent.XmlContent;
-
-public class Fits {
-	
-	public static String FITS_HOME;
-	public static String FITS_XML;
-	public static String FITS_TOOLS;
-	public static XMLConfiguration config;
-	public static FitsXmlMapper mapper;
-	public static boolean validateToolOutput;
-	public static boolean enableStatistics;
-	public static String externalOutputSchema;
-	public static String internalOutputSchema;
-	public static int maxThreads = 20;       // GDM 16-Nov-2012
-	public static final String XML_NAMESPACE = "http://hul.harvard.edu/ois/xml/ns/fits/fits_output";
-	
-	public static String VERSION = "0.6.3";
-	
-	private ToolOutputConsolidator consolidator;
-	private static XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
-	private ToolBelt toolbelt;
-	
-	private static boolean traverseDirs;
-	
-	public Fits() throws FitsException {
-		this(null);
-	}
-	
-	public Fits(String fits_home) throws FitsConfigurationException {
-		Logger.getRootLogger().setLevel(Level.OFF);
-		
-		//Set BB_HOME dir with environment variable
-		FITS_HOME = System.getenv("FITS_HOME");
-		if(FITS_HOME == null) {
-			//if env variable not set check for fits_home passed into constructor
-			if(fits_home != null) {
-				FITS_HOME = fits_home;
-			}
-			else {
-				//if fits_home is still not set use the current directory
-				FITS_HOME = "";
-			}
-		}
-		
-		//If fits home is not an empty string and doesn't send with a file separator character, add one
-		if(FITS_HOME.length() > 0 && !FITS_HOME.endsWith(File.separator)) {
-				FITS_HOME = FITS_HOME+File.separator;
-		}
-		
-		FITS_XML = FITS_HOME+"xml"+File.separator;
-		FITS_TOOLS = FITS_HOME+"tools"+File.separator;
-		
-		try {
-			config = new XMLConfiguration(FITS_XML+"fits.xml");
-		} catch (ConfigurationException e) {
-			throw new FitsConfigurationException("Error reading "+FITS_XML+"fits.xml",e);
-		}
-		try {
-			mapper = new FitsXmlMapper();
-		} catch (Exception  e) {
-			throw new FitsConfigurationException("Error creating FITS XML Mapper",e);
-		} 
-		// required config values
-		try {
-		    validateToolOutput = config.getBoolean("output.validate-tool-output");
-		    externalOutputSchema   = config.getString("output.external-output-schema");
-		    internalOutputSchema   = config.getString("output.internal-output-schema");
-		    enableStatistics = config.getBoolean("output.enable-statistics");
-		}
-		catch (NoSuchElementException e) {
-		    System.out.println ("Error inconfiguration file: " + e.getMessage());
-		    return;
-		}
-		// optional config values GDM 16-Nov-2012
-		try {
-		    maxThreads = config.getShort("process.max-threads");
-		}
-		catch (NoSuchElementException e) { }
-		if (maxThreads < 1) {
-		    // If invalid number specified, use a default.
-		    maxThreads = 20;
-		}
-		
-		String consolidatorClass = config.getString("output.dataConsolidator[@class]");
-		try {
-			Class<?> c = Class.forName(consolidatorClass);
-			consolidator = (ToolOutputConsolidator)c.newInstance();
-		}
-		catch(Exception e) {
-			throw new FitsConfigurationException("Error initializing "+consolidatorClass,e);
-		}
-		
-		toolbelt = new ToolBelt(FITS_XML+"fits.xml");
-		
-	}
-	
-	public static void main(String[] args) throws FitsException, IOException, ParseException, XMLStreamException {
-		Fits fits = new Fits();
-		
-		Options options = new Options();
-		options.addOption("i",true, "input file or directory");
-		options.addOption("r",false,"process directories recursively when -i is a directory ");
-		options.addOption("o",true, "output file");
-		options.addOption("h",false,"print this message");
-		options.addOption("v",false,"print version information");
-		OptionGroup outputOptions = new OptionGroup();
-		Option stdxml = new Option("x",false,"convert FITS output to a standard metadata schema");
-		Option combinedStd = new Option("xc",false,"output using a standard metadata schema and include FITS xml");
-		outputOptions.addOption(stdxml);
-		outputOptions.addOption(combinedStd);
-		options.addOptionGroup(outputOptions);
-
-		CommandLineParser parser = new GnuParser();
-		CommandLine cmd = parser.parse(options, args);
-		
-		if(cmd.hasOption("h")) {
-			fits.printHelp(options);
-			System.exit(0);
-		}
-		if(cmd.hasOption("v")) {
-			System.out.println(Fits.VERSION);
-			System.exit(0);
-		}
-		if(cmd.hasOption("r")) {
-			traverseDirs = true;
-		}
-		else {
-			traverseDirs = false;
-		}
-		
-		if(cmd.hasOption("i")) {
-			String input = cmd.getOptionValue("i");	
-			File inputFile = new File(input);
-			
-			if(inputFile.isDirectory()) {
-				String outputDir = cmd.getOptionValue("o");
-				if(outputDir == null || !(new File(outputDir).isDirectory())) {
-					throw new FitsException("When FITS is run in directory processing mode the output location must be a diretory");
-				}
-				fits.doDirectory(inputFile,new File(outputDir),cmd.hasOption("x"),cmd.hasOption("xc"));
-			}
-			else {
-				FitsOutput result = fits.doSingleFile(inputFile);
-				fits.outputResults(result,cmd.getOptionValue("o"),cmd.hasOption("x"),cmd.hasOption("xc"),false);
-			}
-		}
-		else {
-			System.err.println("Invalid CLI options");
-			fits.printHelp(options);
-			System.exit(-1);
-		}
-	    
-
-		
-		System.exit(0);
-	}
-	
-	/**
-	 * Recursively processes all files in the directory.
-	 * @param intputFile
-	 * @param useStandardSchemas
-	 * @throws IOException 
-	 * @throws XMLStreamException 
-	 * @throws FitsException 
-	 */
-	private void doDirectory(File inputDir, File outputDir, boolean useStandardSchemas, boolean standardCombinedFormat) throws FitsException, XMLStreamException, IOException {
-		for(File f : inputDir.listFiles()) {
-			if(f.isDirectory() && traverseDirs) {
-				doDirectory(f, outputDir, useStandardSchemas,standardCombinedFormat);
-			}
-			else if(f.isFile()) {
-				FitsOutput result = doSingleFile(f);
-				String outputFile = outputDir.getPath() + File.separator + f.getName() + ".fits.xml";
-				File output = new File(outputFile);
-				if(output.exists()) {
-					int cnt = 1;
-					while(true) {
-						outputFile = outputDir.getPath() + File.separator + f.getName() + "-" + cnt + ".fits.xml";
-						output = new File(outputFile);
-						if(!output.exists()) {
-							break;
-						}
-						cnt++;
-					}
-				}
-				outputResults(result,outputFile,useStandardSchemas,standardCombinedFormat,true);
-			}
-		}
-	}
-	
-	
-	/**
-	 * processes a single file and outputs to the provided output location. Outputs to 
-	 * standard out if outputLocation is null
-	 * @param inputFile
-	 * @param outputLocation
-	 * @param useStandardSchemas - use standard schemas if available for output type
-	 * @throws FitsException
-	 * @throws XMLStreamException
-	 * @throws IOException
-	 */
-	private FitsOutput doSingleFile(File inputFile) throws FitsException, XMLStreamException, IOException {
-		
-		FitsOutput result = this.examine(inputFile);	
-		if(result.getCaughtExceptions().size() > 0) {
-			for(Exception e: result.getCaughtExceptions()) {
-				System.err.println("Warning: " + e.getMessage());
-			}
-		}
-		return result;
-	}
-	
-	private void outputResults(FitsOutput result, String outputLocation, boolean standardSchema, boolean standardCombinedFormat, boolean dirMode) throws XMLStreamException, IOException, FitsException {
-		OutputStream out = null;
-		try {	
-		    //figure out the output location
-			if(outputLocation != null) {
-				out = new FileOutputStream(outputLocation);
-			}
-			else if(!dirMode) {		
-				out = System.out;
-			}
-			else {
-				throw new FitsException("The output location must be provided when running FITS in directory mode");
-			}
-			
-			//if -x is set, then convert to standard metadata schema and output to -o
-			if(standardSchema) {
-				outputStandardSchemaXml(result,out);
-			}
-			//if we are using -xc output FITS xml and standard format
-			else if(standardCombinedFormat) {
-				outputStandardCombinedFormat(result,out);
-			}
-			//else output FITS XML to -o
-			else {
-				Document doc = result.getFitsXml();
-				XMLOutputter serializer = new XMLOutputter(Format.getPrettyFormat());
-				serializer.output(doc, out);
-			}
-		
-		}
-		finally {
-			if(out != null) {
-				out.close();
-			}
-		}
-	}
-	
-	public static void outputStandardCombinedFormat(FitsOutput result, OutputStream out) throws XMLStreamException, IOException, FitsException {
-		//add the normal fits xml output
-		result.addStandardCombinedFormat();
-		
-		//output the merged JDOM Document
-		XMLOutputter serializer = new XMLOutputter(Format.getPrettyFormat());
-		serializer.output(result.getFitsXml(), out);
-
-	}
-	
-	public static void outputStandardSchemaXml(FitsOutput fitsOutput, OutputStream out) throws XMLStreamException, IOException {
-		XmlContent xml = fitsOutput.getStandardXmlContent();
-		
-		//create an xml output factory
-	    Transformer transformer = null;
-	    
-	    //initialize transformer for pretty print xslt
-	    TransformerFactory tFactory = TransformerFactory.newInstance ();
-	    String prettyPrintXslt = FITS_XML+"prettyprint.xslt";
-	    try {
-			Templates template = tFactory.newTemplates(new StreamSource(prettyPrintXslt));			
-			transformer = template.newTransformer();
-	    }
-	    catch(Exception e) {
-	    	transformer = null;
-	    }
-	    
-		if(xml != null && transformer != null) {
-
-			xml.setRoot(true);	
-			ByteArrayOutputStream xmlOutStream = new ByteArrayOutputStream();
-			OutputStream xsltOutStream = new ByteArrayOutputStream();
-			
-			try {
-				//send standard xml to the output stream
-				XMLStreamWriter sw = xmlOutputFactory.createXMLStreamWriter(xmlOutStream);
-				xml.output(sw);
-				
-				//convert output stream to byte array and read back in as inputstream
-				Source source = new StreamSource(new ByteArrayInputStream(xmlOutStream.toByteArray()));
-				Result rstream = new StreamResult(xsltOutStream);
-				
-				//apply the xslt
-				transformer.transform(source,rstream);
-				
-				//send to the providedOutpuStream
-				out.write(xsltOutStream.toString().getBytes("UTF-8"));
-				out.flush();
-				
-			} catch (Exception e) {
-				System.err.println("error converting output to a standard schema format");
-			}
-			finally {
-				xmlOutStream.close();
-				xsltOutStream.close();
-			}			
-			
-		}
-		else {
-			System.err.println("Error: output cannot be converted to a standard schema format for this file");
-		}
-	}
-	
-	private void printHelp(Options opts) {
-		HelpFormatter formatter = new HelpFormatter();
-		formatter.printHelp("fits", opts );
-	}
-	
-	/* ORIGINAL EXAMINE METHOD WITHOUT THREADS
-	 
-	public FitsOutput examineOriginal(File input) throws FitsException {	
-		if(!input.exists()) {
-			throw new FitsConfigurationException(input+" does not exist or is not readable");
-		}
-				
-		List<ToolOutput> toolResults = new ArrayList<ToolOutput>();
-		
-		//run file through each tool, catching exceptions thrown by tools
-		List<Exception> caughtExceptions = new ArrayList<Exception>();
-		String path = input.getPath().toLowerCase();
-		String ext = path.substring(path.lastIndexOf(".")+1);
-		for(Tool t : toolbelt.getTools()) {			
-			if(t.isEnabled()) {			
-				if(!t.hasExcludedExtension(ext)) {
-					try {
-						ToolOutput tOutput = t.extractInfo(input);
-						toolResults.add(tOutput);
-					}
-					catch(Exception e) {
-						caughtExceptions.add(e);
-					}
-				}
-			}
-		}
-
-		
-		// consolidate the results into a single DOM
-		FitsOutput result = consolidator.processResults(toolResults);
-		result.setCaughtExceptions(caughtExceptions);
-		
-		for(Tool t: toolbelt.getTools()) {
-			t.resetOutput();
-		}
-		
-		return result;	
-	}
-	*/
-	
-	public FitsOutput examine(File input) throws FitsException {
-		long t1 = System.currentTimeMillis();
-		if(!input.exists()) {
-			throw new FitsConfigurationException(input+" does not exist or is not readable");
-		}
-				
-		List<ToolOutput> toolResults = new ArrayList<ToolOutput>();
-		
-		//run file through each tool, catching exceptions thrown by tools
-		List<Exception> caughtExceptions = new ArrayList<Exception>();
-		String path = input.getPath().toLowerCase();
-		String ext = path.substring(path.lastIndexOf(".")+1);
-		
-		ArrayList<Thread> threads = new ArrayList<Thread>();
-		// GDM 16-Nov-12: Implement limit on maximum threads
-		for(Tool t : toolbelt.getTools()) {			
-			if(t.isEnabled()) {
-				
-				//figure out of the tool should be run against the file depending on the include and exclude extension lists
-				RunStatus runStatus = RunStatus.SHOULDNOTRUN;
-				//if the tool has an include-exts list and it has the extension in it, then run
-				if(t.hasIncludedExtensions()) {
-					if(t.hasIncludedExtension(ext)) {
-						runStatus = RunStatus.SHOULDRUN;
-					}
-				}
-				//if the tool has an exclude-exts list and it does NOT have the extension in it, then run
-				else if(t.hasExcludedExtensions()) {
-					if(!t.hasExcludedExtension(ext)) {
-						runStatus = RunStatus.SHOULDRUN;
-					}
-				}
-				//if the tool does not have an include-exts or exclude-exts list then run
-				else if(!t.hasIncludedExtensions() && !t.hasExcludedExtensions()) {
-					runStatus = RunStatus.SHOULDRUN;
-				}
-				
-				t.setRunStatus(runStatus);
-				
-				if(runStatus == RunStatus.SHOULDRUN) {
-				    // Don't exceed the maximum thread count
-				    while (countActiveTools(threads) >= maxThreads) {
-				        try {
-				            Thread.sleep(200);
-				        }
-				        catch (InterruptedException e) {}
-				    }
-					//spin up new threads
-					t.setInputFile(input);
-					// GDM 16-Nov-12: Name the threads as a debugging aid
-					Thread thread = new Thread(t, t.getToolInfo().getName());
-					threads.add(thread);
-					thread.start();
-				}
-			}
-		}
-		
-		//wait for them all to finish
-		for(Thread thread : threads) {
-			try {
-				thread.join();
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-		}
-		
-		//get all output from the tools
-		for(Tool t: toolbelt.getTools()) {
-			toolResults.add(t.getOutput());
-		}
-		
-		// consolidate the results into a single DOM
-		FitsOutput result = consolidator.processResults(toolResults);
-		result.setCaughtExceptions(caughtExceptions);
-		
-		long t2 = System.currentTimeMillis();
-		if(enableStatistics) {
-			result.createStatistics(toolbelt,ext,t2-t1);
-		}
-		
-		for(Tool t: toolbelt.getTools()) {
-			t.resetOutput();
-		}
-		
-		return result;	
-	}
-	
-	public ToolBelt getToolbelt() {
-		return toolbelt;
-	}
-	
-	/* Count up all the threads that are still running */
-	private int countActiveTools (List<Thread> threads) {
-	    int count = 0;
-	    for (Thread t : threads) {
-	        if (t.isAlive()) {
-	            ++count;
-	        }
-	    }
-	    return count;
-	}
-
-}
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.GnuParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.OptionGroup;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.XMLConfiguration;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+import edu.harvard.hul.ois.fits.consolidation.ToolOutputConsolidator;
+import edu.harvard.hul.ois.fits.exceptions.FitsConfigurationException;
+import edu.harvard.hul.ois.fits.exceptions.FitsException;
+
+import edu.harvard.hul.ois.fits.mapping.FitsXmlMapper;
+import edu.harvard.hul.ois.fits.tools.Tool;
+import edu.harvard.hul.ois.fits.tools.Tool.RunStatus;
+import edu.harvard.hul.ois.fits.tools.ToolBelt;
+import edu.harvard.hul.ois.fits.tools.ToolOutput;
+import edu.harvard.hul.ois.fits.tools.ToolOutputCache;
+import edu.harvard.hul.ois.fits.tools.ToolOutputValidator;
+import edu.harvard.hul.ois.fits.tools.ToolRun;
+import edu.harvard.hul.ois.fits.tools.utils.Checksums;
+import edu.harvard.hul.ois.fits.tools.utils.FitsInput;
+import edu.harvard.hul.ois.fits.tools.utils.SchemaCache;
+import edu.harvard.hul.ois.fits.tools.utils.TemplatesCache;
+import edu.harvard.hul.ois.ots.schemas.XmlContent.XmlContent;
+
+public class Fits {
+	
+	public static String FITS_HOME;
+	public static String FITS_XML;
+	public static String FITS_TOOLS;
+	public static XMLConfiguration config;
+	public static FitsXmlMapper mapper;
+	public static boolean validateToolOutput;
+	public static ToolOutputValidator toolOutputValidator;
+	public static boolean enableStatistics;
+	public static String externalOutputSchema;
+	public static String internalOutputSchema;
+	public static int maxThreads = 20;       // GDM 16-Nov-2012
+	public static int fileThreads = Runtime.getRuntime().availableProcessors();
+	public static long fileTimeout;
+	public static final String XML_NAMESPACE = "http://hul.harvard.edu/ois/xml/ns/fits/fits_output";
+	
+	public static String VERSION = "0.6.3";
+	
+	private ToolOutputConsolidator consolidator;
+	private static XmlStreamOutputter xmlOutputter = new XmlStreamOutputter(true);
+	private ToolBelt toolbelt;
+	private ExecutorService toolExecutor;
+	private FitsResultCache resultCache;
+	private ToolOutputCache toolOutputCache;
+	//checksums calculated with the MD5 used as the cache key, so FileInfo doesn't read the file again
+	private List<String> keyChecksums;
+	private long checksumParallelThreshold;
+	//runs of serialized tools that timed out but are still holding a pool thread, by tool
+	private Map<Tool,ToolRun> abandonedRuns = new ConcurrentHashMap<Tool,ToolRun>();
+	
+	private static boolean traverseDirs;
+	
+	public Fits() throws FitsException {
+		this(null);
+	}
+	
+	public Fits(String fits_home) throws FitsConfigurationException {
+		Logger.getRootLogger().setLevel(Level.OFF);
+		
+		//Set BB_HOME dir with environment variable
+		FITS_HOME = System.getenv("FITS_HOME");
+		if(FITS_HOME == null) {
+			//if env variable not set check for fits_home passed into constructor
+			if(fits_home != null) {
+				FITS_HOME = fits_home;
+			}
+			else {
+				//if fits_home is still not set use the current directory
+				FITS_HOME = "";
+			}
+		}
+		
+		//If fits home is not an empty string and doesn't send with a file separator character, add one
+		if(FITS_HOME.length() > 0 && !FITS_HOME.endsWith(File.separator)) {
+				FITS_HOME = FITS_HOME+File.separator;
+		}
+		
+		FITS_XML = FITS_HOME+"xml"+File.separator;
+		FITS_TOOLS = FITS_HOME+"tools"+File.separator;
+		
+		try {
+			config = new XMLConfiguration(FITS_XML+"fits.xml");
+		} catch (ConfigurationException e) {
+			throw new FitsConfigurationException("Error reading "+FITS_XML+"fits.xml",e);
+		}
+		try {
+			mapper = new FitsXmlMapper();
+		} catch (Exception  e) {
+			throw new FitsConfigurationException("Error creating FITS XML Mapper",e);
+		} 
+		// required config values
+		try {
+		    validateToolOutput = config.getBoolean("output.validate-tool-output");
+		    externalOutputSchema   = config.getString("output.external-output-schema");
+		    internalOutputSchema   = config.getString("output.internal-output-schema");
+		    enableStatistics = config.getBoolean("output.enable-statistics");
+		}
+		catch (NoSuchElementException e) {
+		    System.out.println ("Error inconfiguration file: " + e.getMessage());
+		    return;
+		}
+		// validate a sample of each tool's output, optionally in the background
+		toolOutputValidator = null;
+		if(validateToolOutput) {
+			int sampleRate = config.getInt("output.validate-tool-output[@sample-rate]",1);
+			boolean async = config.getBoolean("output.validate-tool-output[@async]",false);
+			toolOutputValidator = new ToolOutputValidator(FITS_HOME+internalOutputSchema,sampleRate,async);
+		}
+		// optional config values GDM 16-Nov-2012
+		try {
+		    maxThreads = config.getShort("process.max-threads");
+		}
+		catch (NoSuchElementException e) { }
+		if (maxThreads < 1) {
+		    // If invalid number specified, use a default.
+		    maxThreads = 20;
+		}
+		// number of files processed at once in directory mode
+		fileThreads = config.getInt("process.file-threads", Runtime.getRuntime().availableProcessors());
+		if (fileThreads < 1) {
+		    fileThreads = 1;
+		}
+		// time allowed for all tools to examine a single file, in seconds
+		fileTimeout = config.getLong("process.file-timeout", 0)*1000;
+		// pick up changes to the stylesheets and schemas without restarting
+		TemplatesCache.setCheckModified(config.getBoolean("process.reload-stylesheets", false));
+		SchemaCache.setCheckModified(config.getBoolean("process.reload-schemas", false));
+		
+		String consolidatorClass = config.getString("output.dataConsolidator[@class]");
+		try {
+			Class<?> c = Class.forName(consolidatorClass);
+			consolidator = (ToolOutputConsolidator)c.newInstance();
+		}
+		catch(Exception e) {
+			throw new FitsConfigurationException("Error initializing "+consolidatorClass,e);
+		}
+		
+		toolbelt = new ToolBelt(FITS_XML+"fits.xml");
+		
+		//prepare the tools now instead of while examining the first files
+		if(config.getBoolean("process.warm-up",false)) {
+			toolbelt.warmUp();
+		}
+		
+		try {
+			keyChecksums = new ArrayList<String>(Checksums.getConfigured(config));
+		}
+		catch(IllegalArgumentException e) {
+			throw new FitsConfigurationException(e.getMessage());
+		}
+		if(!keyChecksums.contains(Checksums.MD5)) {
+			keyChecksums.add(0,Checksums.MD5);
+		}
+		checksumParallelThreshold = Checksums.getParallelThreshold(config);
+		
+		//results of previous runs, keyed by file content
+		String cacheDir = config.getString("result-cache.directory","");
+		if(cacheDir.length() > 0) {
+			List<File> configFiles = new ArrayList<File>();
+			configFiles.add(new File(FITS_XML+"fits.xml"));
+			configFiles.add(new File(FitsXmlMapper.FITS_XML_MAP_PATH));
+			configFiles.add(new File(FITS_TOOLS+"droid"+File.separator+config.getString("droid_sigfile")));
+			try {
+				String fingerprint = FitsResultCache.fingerprint(toolbelt.getTools(),configFiles);
+				long maxSize = config.getLong("result-cache.max-size-mb",1024)*1024*1024;
+				resultCache = new FitsResultCache(new File(cacheDir),maxSize,fingerprint);
+			}
+			catch(IOException e) {
+				throw new FitsConfigurationException("Error initializing result cache in "+cacheDir,e);
+			}
+		}
+		
+		//output of each tool, so that only new or upgraded tools are run on files seen before
+		cacheDir = config.getString("tool-output-cache.directory","");
+		if(cacheDir.length() > 0) {
+			List<File> configFiles = new ArrayList<File>();
+			configFiles.add(new File(FitsXmlMapper.FITS_XML_MAP_PATH));
+			try {
+				String fingerprint = FitsResultCache.fingerprint(new ArrayList<Tool>(),configFiles);
+				toolOutputCache = new ToolOutputCache(new File(cacheDir),fingerprint);
+			}
+			catch(IOException e) {
+				throw new FitsConfigurationException("Error initializing tool output cache in "+cacheDir,e);
+			}
+		}
+		
+		//long lived pool of tool threads, bounded by process.max-threads
+		toolExecutor = Executors.newFixedThreadPool(maxThreads, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+			public Thread newThread(Runnable r) {
+				// Name the threads as a debugging aid
+				Thread thread = new Thread(r, "FITS tool "+count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		
+	}
+	
+	public static void main(String[] args) throws FitsException, IOException, ParseException, XMLStreamException {
+		Fits fits = new Fits();
+		
+		Options options = new Options();
+		options.addOption("i",true, "input file or directory");
+		options.addOption("r",false,"process directories recursively when -i is a directory ");
+		options.addOption("include",true,"only process files in the input directory matching the glob");
+		options.addOption("exclude",true,"skip files and directories in the input directory matching the glob");
+		options.addOption("depth",true,"maximum depth of sub directories processed with -r");
+		options.addOption("incremental",false,"only process files in the input directory that are new or changed since the last run with the same output directory");
+		options.addOption("delete",false,"remove the output of files that no longer exist, only allowed with -incremental");
+		options.addOption("o",true, "output file");
+		options.addOption("h",false,"print this message");
+		options.addOption("v",false,"print version information");
+		OptionGroup outputOptions = new OptionGroup();
+		Option stdxml = new Option("x",false,"convert FITS output to a standard metadata schema");
+		Option combinedStd = new Option("xc",false,"output using a standard metadata schema and include FITS xml");
+		outputOptions.addOption(stdxml);
+		outputOptions.addOption(combinedStd);
+		options.addOptionGroup(outputOptions);
+
+		CommandLineParser parser = new GnuParser();
+		CommandLine cmd = parser.parse(options, args);
+		
+		if(cmd.hasOption("h")) {
+			fits.printHelp(options);
+			System.exit(0);
+		}
+		if(cmd.hasOption("v")) {
+			System.out.println(Fits.VERSION);
+			System.exit(0);
+		}
+		if(cmd.hasOption("r")) {
+			traverseDirs = true;
+		}
+		else {
+			traverseDirs = false;
+		}
+		
+		if(cmd.hasOption("delete") && !cmd.hasOption("incremental")) {
+			throw new FitsException("-delete can only be used with -incremental");
+		}
+		
+		if(cmd.hasOption("i")) {
+			String input = cmd.getOptionValue("i");	
+			File inputFile = new File(input);
+			
+			if(inputFile.isDirectory()) {
+				String outputDir = cmd.getOptionValue("o");
+				if(outputDir == null || !(new File(outputDir).isDirectory())) {
+					throw new FitsException("When FITS is run in directory processing mode the output location must be a diretory");
+				}
+				BatchProcessor batch = new BatchProcessor(fits,new File(outputDir),traverseDirs,cmd.hasOption("x"),cmd.hasOption("xc"));
+				batch.setInclude(cmd.getOptionValue("include"));
+				batch.setExclude(cmd.getOptionValue("exclude"));
+				if(cmd.hasOption("depth")) {
+					try {
+						batch.setMaxDepth(Integer.parseInt(cmd.getOptionValue("depth")));
+					}
+					catch(NumberFormatException e) {
+						throw new FitsException("Invalid value for -depth: "+cmd.getOptionValue("depth"));
+					}
+				}
+				if(cmd.hasOption("incremental")) {
+					batch.setIncremental(cmd.hasOption("delete"));
+				}
+				batch.process(inputFile);
+				if(cmd.hasOption("incremental")) {
+					System.err.println("Processed "+batch.getProcessedCount()+", skipped "+batch.getSkippedCount()+" unchanged, removed "+batch.getRemovedCount()+" deleted, "+batch.getFailedCount()+" failed");
+				}
+			}
+			else {
+				FitsOutput result = fits.doSingleFile(inputFile);
+				fits.outputResults(result,cmd.getOptionValue("o"),cmd.hasOption("x"),cmd.hasOption("xc"),false);
+			}
+		}
+		else {
+			System.err.println("Invalid CLI options");
+			fits.printHelp(options);
+			System.exit(-1);
+		}
+	    
+		fits.shutdown();
+		
+		System.exit(0);
+	}
+	
+	/**
+	 * processes a single file and outputs to the provided output location. Outputs to 
+	 * standard out if outputLocation is null
+	 * @param inputFile
+	 * @param outputLocation
+	 * @param useStandardSchemas - use standard schemas if available for output type
+	 * @throws FitsException
+	 * @throws XMLStreamException
+	 * @throws IOException
+	 */
+	FitsOutput doSingleFile(File inputFile) throws FitsException, XMLStreamException, IOException {
+		
+		FitsOutput result = this.examine(inputFile);	
+		if(result.getCaughtExceptions().size() > 0) {
+			for(Exception e: result.getCaughtExceptions()) {
+				System.err.println("Warning: " + e.getMessage());
+			}
+		}
+		return result;
+	}
+	
+	void outputResults(FitsOutput result, String outputLocation, boolean standardSchema, boolean standardCombinedFormat, boolean dirMode) throws XMLStreamException, IOException, FitsException {
+		OutputStream out = null;
+		try {	
+		    //figure out the output location
+			if(outputLocation != null) {
+				out = new FileOutputStream(outputLocation);
+			}
+			else if(!dirMode) {		
+				out = System.out;
+			}
+			else {
+				throw new FitsException("The output location must be provided when running FITS in directory mode");
+			}
+			
+			outputResults(result,out,standardSchema,standardCombinedFormat);
+		
+		}
+		finally {
+			if(out != null) {
+				out.close();
+			}
+		}
+	}
+	
+	static void outputResults(FitsOutput result, OutputStream out, boolean standardSchema, boolean standardCombinedFormat) throws XMLStreamException, IOException, FitsException {
+		//if -x is set, then convert to standard metadata schema and output to -o
+		if(standardSchema) {
+			outputStandardSchemaXml(result,out);
+		}
+		//if we are using -xc output FITS xml and standard format
+		else if(standardCombinedFormat) {
+			outputStandardCombinedFormat(result,out);
+		}
+		//else output FITS XML to -o
+		else {
+			result.write(out);
+		}
+	}
+	
+	public static void outputStandardCombinedFormat(FitsOutput result, OutputStream out) throws XMLStreamException, IOException, FitsException {
+		//add the standard element to the normal fits xml output
+		result.addStandardCombinedFormat();
+		
+		//output the fits xml, writing the standard xml into it
+		result.write(out);
+
+	}
+	
+	public static void outputStandardSchemaXml(FitsOutput fitsOutput, OutputStream out) throws XMLStreamException, IOException {
+		XmlContent xml = fitsOutput.getStandardXmlContent();
+		
+		if(xml != null) {
+
+			xml.setRoot(true);	
+			
+			try {
+				//send indented standard xml straight to the provided OutputStream
+				XMLStreamWriter sw = xmlOutputter.createWriter(out);
+				xml.output(sw);
+				sw.flush();
+				out.flush();
+				
+			} catch (Exception e) {
+				System.err.println("error converting output to a standard schema format");
+			}
+			
+		}
+		else {
+			System.err.println("Error: output cannot be converted to a standard schema format for this file");
+		}
+	}
+	
+	private void printHelp(Options opts) {
+		HelpFormatter formatter = new HelpFormatter();
+		formatter.printHelp("fits", opts );
+	}
+	
+	/* ORIGINAL EXAMINE METHOD WITHOUT THREADS
+	 
+	public FitsOutput examineOriginal(File input) throws FitsException {	
+		if(!input.exists()) {
+			throw new FitsConfigurationException(input+" does not exist or is not readable");
+		}
+				
+		List<ToolOutput> toolResults = new ArrayList<ToolOutput>();
+		
+		//run file through each tool, catching exceptions thrown by tools
+		List<Exception> caughtExceptions = new ArrayList<Exception>();
+		String path = input.getPath().toLowerCase();
+		String ext = path.substring(path.lastIndexOf(".")+1);
+		for(Tool t : toolbelt.getTools()) {			
+			if(t.isEnabled()) {			
+				if(!t.hasExcludedExtension(ext)) {
+					try {
+						ToolOutput tOutput = t.extractInfo(input);
+						toolResults.add(tOutput);
+					}
+					catch(Exception e) {
+						caughtExceptions.add(e);
+					}
+				}
+			}
+		}
+
+		
+		// consolidate the results into a single DOM
+		FitsOutput result = consolidator.processResults(toolResults);
+		result.setCaughtExceptions(caughtExceptions);
+		
+		for(Tool t: toolbelt.getTools()) {
+			t.resetOutput();
+		}
+		
+		return result;	
+	}
+	*/
+	
+	/**
+	 * Runs the file through all of the enabled tools and consolidates the results.
+	 * All per-file state is held in ToolRun objects local to this call, so a single 
+	 * Fits instance may be used to examine several files concurrently.
+	 * @param input the file to examine
+	 * @return the consolidated FITS output
+	 * @throws FitsException
+	 */
+	public FitsOutput examine(File input) throws FitsException {
+		long t1 = System.currentTimeMillis();
+		if(!input.exists()) {
+			throw new FitsConfigurationException(input+" does not exist or is not readable");
+		}
+		//tools running in this JVM share a single read of the file
+		FitsInput fitsInput = FitsInput.open(input);
+		try {
+			return examine(input,fitsInput,t1);
+		}
+		finally {
+			fitsInput.close();
+		}
+	}
+	
+	private FitsOutput examine(File input, FitsInput fitsInput, long t1) throws FitsException {
+		String path = input.getPath().toLowerCase();
+		String ext = path.substring(path.lastIndexOf(".")+1);
+		
+		List<ToolRun> toolRuns = new ArrayList<ToolRun>();
+		List<Tool> selectedTools = new ArrayList<Tool>();
+		for(Tool t : toolbelt.getTools()) {			
+			if(t.isEnabled()) {
+				
+				//figure out of the tool should be run against the file depending on the include and exclude extension lists
+				RunStatus runStatus = RunStatus.SHOULDNOTRUN;
+				//if the tool has an include-exts list and it has the extension in it, then run
+				if(t.hasIncludedExtensions()) {
+					if(t.hasIncludedExtension(ext)) {
+						runStatus = RunStatus.SHOULDRUN;
+					}
+				}
+				//if the tool has an exclude-exts list and it does NOT have the extension in it, then run
+				else if(t.hasExcludedExtensions()) {
+					if(!t.hasExcludedExtension(ext)) {
+						runStatus = RunStatus.SHOULDRUN;
+					}
+				}
+				//if the tool does not have an include-exts or exclude-exts list then run
+				else if(!t.hasIncludedExtensions() && !t.hasExcludedExtensions()) {
+					runStatus = RunStatus.SHOULDRUN;
+				}
+				
+				toolRuns.add(new ToolRun(t,input,runStatus));
+				if(runStatus == RunStatus.SHOULDRUN) {
+					selectedTools.add(t);
+				}
+			}
+		}
+		
+		String cacheKey = null;
+		if(resultCache != null || toolOutputCache != null) {
+			try {
+				cacheKey = fitsInput.getChecksums(keyChecksums,checksumParallelThreshold).get(Checksums.MD5);
+			} catch (IOException e) {
+				throw new FitsException("Error reading "+input.getPath(),e);
+			}
+		}
+		
+		//return the results for identical content examined by the same tools if they have been cached
+		String resultKey = null;
+		if(resultCache != null) {
+			resultKey = FitsResultCache.key(cacheKey,selectedTools);
+			FitsOutput cached = resultCache.get(resultKey,input);
+			if(cached != null) {
+				if(enableStatistics) {
+					cached.createStatistics(new ArrayList<ToolRun>(),ext,System.currentTimeMillis()-t1,fitsInput);
+				}
+				return cached;
+			}
+		}
+				
+		List<ToolOutput> toolResults = new ArrayList<ToolOutput>();
+		
+		//run file through each tool, catching exceptions thrown by tools
+		List<Exception> caughtExceptions = new ArrayList<Exception>();
+		
+		List<ToolRun> submitted = new ArrayList<ToolRun>();
+		List<Future<ToolRun>> futures = new ArrayList<Future<ToolRun>>();
+		for(ToolRun toolRun : toolRuns) {
+			Tool t = toolRun.getTool();
+			RunStatus runStatus = toolRun.getRunStatus();
+			
+			//use the output of this version of the tool if it has already examined the content
+			if(runStatus == RunStatus.SHOULDRUN && toolOutputCache != null) {
+				ToolOutput cached = toolOutputCache.get(t,cacheKey,input);
+				if(cached != null) {
+					toolRun.setCachedOutput(cached);
+					continue;
+				}
+			}
+			
+			if(runStatus == RunStatus.SHOULDRUN) {
+				//a serialized tool stuck on an earlier file would only take another thread and wait for the same lock
+				ToolRun abandoned = t.isSerialized() ? abandonedRuns.get(t) : null;
+				if(abandoned != null) {
+					if(!abandoned.isFinished()) {
+						toolRun.skip();
+						continue;
+					}
+					abandonedRuns.remove(t);
+				}
+				//queue the tool on the shared pool, which is bounded by process.max-threads
+				toolRun.setQueueTime(System.currentTimeMillis());
+				futures.add(toolExecutor.submit(toolRun,toolRun));
+				submitted.add(toolRun);
+			}
+		}
+		
+		//wait for them all to finish or run out of time
+		long fileDeadline = fileTimeout > 0 ? t1+fileTimeout : Long.MAX_VALUE;
+		for(int i=0;i<futures.size();i++) {
+			try {
+				awaitToolRun(futures.get(i),submitted.get(i),fileDeadline);
+			} catch (InterruptedException e) {
+				for(Future<ToolRun> f : futures) {
+					f.cancel(true);
+				}
+				Thread.currentThread().interrupt();
+				throw new FitsException("Interrupted while examining "+input.getPath(),e);
+			} catch (ExecutionException e) {
+				//ToolRun catches exceptions thrown by the tool so this is an Error
+				e.printStackTrace();
+			}
+		}
+		
+		//get all output from the tools
+		for(ToolRun toolRun : toolRuns) {
+			toolResults.add(toolRun.getOutput());
+			if(toolRun.getException() != null) {
+				caughtExceptions.add(toolRun.getException());
+			}
+			else if(toolOutputCache != null && toolRun.getRunStatus() == RunStatus.SUCCESSFUL && toolRun.getOutput() != null) {
+				try {
+					toolOutputCache.put(cacheKey,input,toolRun.getOutput());
+				} catch (IOException e) {
+					System.err.println("Error caching "+toolRun.getTool().getToolInfo().getName()+" output for "+input.getPath()+": "+e.getMessage());
+				}
+			}
+		}
+		
+		// consolidate the results into a single DOM
+		FitsOutput result = consolidator.processResults(toolResults);
+		result.setCaughtExceptions(caughtExceptions);
+		
+		//only complete results are cached, a failed tool may succeed next time
+		if(resultCache != null && caughtExceptions.isEmpty()) {
+			try {
+				resultCache.put(resultKey,result);
+			} catch (IOException e) {
+				System.err.println("Error caching results for "+input.getPath()+": "+e.getMessage());
+			}
+		}
+		
+		long t2 = System.currentTimeMillis();
+		if(enableStatistics) {
+			result.createStatistics(toolRuns,ext,t2-t1,fitsInput);
+		}
+		
+		return result;	
+	}
+	
+	/*
+	 * Waits for a tool to finish.  If the tool runs past its own timeout or the
+	 * deadline for the whole file it is cancelled and its output abandoned.
+	 */
+	private void awaitToolRun(Future<ToolRun> future, ToolRun toolRun, long fileDeadline) throws InterruptedException, ExecutionException {
+		long deadline = fileDeadline;
+		long toolTimeout = toolRun.getTool().getTimeout();
+		if(toolTimeout > 0) {
+			//a tool's time starts when it is queued, so a tool waiting for a thread or a lock times out too
+			deadline = Math.min(deadline,toolRun.getQueueTime()+toolTimeout);
+		}
+		if(deadline == Long.MAX_VALUE) {
+			future.get();
+			return;
+		}
+		try {
+			future.get(Math.max(deadline-System.currentTimeMillis(),0),TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			if(toolRun.timeout()) {
+				future.cancel(true);
+				//the tool may not respond to the interrupt, so later files skip a serialized tool until it returns
+				if(toolRun.getTool().isSerialized() && toolRun.getStartTime() > 0 && !toolRun.isFinished()) {
+					abandonedRuns.put(toolRun.getTool(),toolRun);
+				}
+			}
+		}
+	}
+	
+	public ToolBelt getToolbelt() {
+		return toolbelt;
+	}
+	
+	/**
+	 * @return the cache of results, or null if result-cache.directory is not configured
+	 */
+	public FitsResultCache getResultCache() {
+		return resultCache;
+	}
+	
+	/**
+	 * @return the cache of tool output, or null if tool-output-cache.directory is not configured
+	 */
+	public ToolOutputCache getToolOutputCache() {
+		return toolOutputCache;
+	}
+	
+	/**
+	 * Shuts down the pool of threads used to run the tools.  Waits for any running
+	 * tools and background validations to finish before returning, then stops the
+	 * processes kept running by the tools.  This Fits instance can not be used afterwards.
+	 */
+	public void shutdown() {
+		if(toolExecutor == null) {
+			return;
+		}
+		toolExecutor.shutdown();
+		try {
+			if(!toolExecutor.awaitTermination(60, TimeUnit.SECONDS)) {
+				toolExecutor.shutdownNow();
+			}
+			//report the outcome of validations still running in the background
+			if(toolOutputValidator != null) {
+				toolOutputValidator.awaitPending(60*1000);
+			}
+		} catch (InterruptedException e) {
+			toolExecutor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			toolbelt.close();
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,295 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.Namespace;
+import org.jdom.input.SAXBuilder;
+import org.jdom.output.XMLOutputter;
+
+import com.twmacinta.util.MD5;
+
+import edu.harvard.hul.ois.fits.tools.Tool;
+
+/**
+ * A persistent cache of consolidated FITS output keyed by the MD5 of the file
+ * content and the tools selected for the file.  Entries are stored as XML files under a directory named after a
+ * fingerprint of the toolchain, so changing a tool version, the DROID signature
+ * file, fits.xml or fits_xml_map.xml starts a new set of entries and the old
+ * ones are evicted as the cache fills up.
+ * <p>
+ * The cache is limited to a maximum size on disk.  When it grows past the limit
+ * the least recently used entries are removed.
+ * <p>
+ * The output of one file may be returned for another file with the same content,
+ * so the path dependent fileinfo elements (filepath, filename and fslastmodified)
+ * and the timestamp are replaced with the values for the file being examined.
+ */
+public class FitsResultCache {
+
+	private static Namespace ns = Namespace.getNamespace(Fits.XML_NAMESPACE);
+
+	private File dir;
+	private File entryDir;
+	private long maxSize;
+	private AtomicLong size = new AtomicLong();
+	private AtomicLong hits = new AtomicLong();
+	private AtomicLong misses = new AtomicLong();
+	private SAXBuilder saxBuilder = new SAXBuilder();
+
+	/**
+	 * @param dir directory holding the cache
+	 * @param maxSize maximum size of the cache in bytes
+	 * @param fingerprint identifies the toolchain, see {@link #fingerprint(List, List)}
+	 */
+	public FitsResultCache(File dir, long maxSize, String fingerprint) {
+		this.dir = dir;
+		this.maxSize = maxSize;
+		this.entryDir = new File(dir,fingerprint);
+		entryDir.mkdirs();
+		//don't cache the underlying parser so the builder can be shared between threads
+		saxBuilder.setReuseParser(false);
+		for(File f : listEntries()) {
+			size.addAndGet(f.length());
+		}
+	}
+
+	/**
+	 * Computes a fingerprint of the FITS version, the tool names and versions and
+	 * the contents of the given configuration files
+	 * @param tools
+	 * @param configFiles
+	 * @return hex encoded fingerprint
+	 * @throws IOException
+	 */
+	public static String fingerprint(List<Tool> tools, List<File> configFiles) throws IOException {
+		MessageDigest digest = null;
+		try {
+			digest = MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("MD5 is not available",e);
+		}
+		digest.update(Fits.VERSION.getBytes("UTF-8"));
+		for(Tool t : tools) {
+			String tool = t.getClass().getName()+"|"+t.getToolInfo().getName()+"|"+t.getToolInfo().getVersion()+"|"+t.isEnabled()+"\n";
+			digest.update(tool.getBytes("UTF-8"));
+		}
+		byte[] buffer = new byte[8192];
+		for(File f : configFiles) {
+			InputStream in = new FileInputStream(f);
+			try {
+				int read;
+				while((read = in.read(buffer)) != -1) {
+					digest.update(buffer,0,read);
+				}
+			}
+			finally {
+				in.close();
+			}
+		}
+		return MD5.asHex(digest.digest());
+	}
+
+	/**
+	 * The tools run on a file depend on its extension, so the same content can give
+	 * different output under another name.  The key includes the tools selected for
+	 * the file as well as its content.
+	 * @param md5 MD5 of the content of the file
+	 * @param tools the tools selected to examine the file
+	 * @return the key used to cache the results for the file
+	 */
+	public static String key(String md5, List<Tool> tools) {
+		StringBuilder names = new StringBuilder();
+		for(Tool t : tools) {
+			names.append(t.getClass().getName());
+			names.append("\n");
+		}
+		MD5 toolsMd5 = new MD5();
+		try {
+			toolsMd5.Update(names.toString(),"UTF-8");
+		}
+		catch(UnsupportedEncodingException e) {
+			//UTF-8 is always supported
+			throw new IllegalStateException(e);
+		}
+		return md5+"-"+toolsMd5.asHex().substring(0,8);
+	}
+
+	/**
+	 * Returns the cached output for content with the given key, updated for the file
+	 * @param key the key for the content of the file
+	 * @param file the file being examined
+	 * @return the cached output or null if there isn't one
+	 */
+	public FitsOutput get(String key, File file) {
+		File entry = getEntry(key);
+		Document doc = null;
+		try {
+			doc = saxBuilder.build(entry);
+		}
+		catch(Exception e) {
+			//missing or unreadable
+		}
+		if(doc == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		//for choosing which entries to evict
+		entry.setLastModified(System.currentTimeMillis());
+
+		doc.getRootElement().setAttribute("timestamp",new SimpleDateFormat().format(new Date()));
+		updateFileInfo(doc,file);
+		return new FitsOutput(doc);
+	}
+
+	/**
+	 * Caches the output for content with the given key
+	 * @param key the key for the content of the file
+	 * @param result the output to cache
+	 * @throws IOException
+	 */
+	public void put(String key, FitsOutput result) throws IOException {
+		File entry = getEntry(key);
+		entry.getParentFile().mkdirs();
+		//write to a temporary file so readers never see a partial entry
+		File tmp = File.createTempFile(key,".tmp",entry.getParentFile());
+		OutputStream out = new FileOutputStream(tmp);
+		try {
+			new XMLOutputter().output(result.getFitsXml(),out);
+		}
+		finally {
+			out.close();
+		}
+		long oldSize = entry.length();
+		if(!tmp.renameTo(entry)) {
+			//another thread cached the same content
+			tmp.delete();
+			return;
+		}
+		if(size.addAndGet(tmp.length()-oldSize) > maxSize) {
+			evict();
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getSize() {
+		return size.get();
+	}
+
+	private File getEntry(String key) {
+		//spread the entries over sub directories
+		return new File(new File(entryDir,key.substring(0,2)),key+".xml");
+	}
+
+	/**
+	 * Replaces the path dependent fileinfo elements in FITS XML created for a
+	 * file with the same content
+	 * @param doc FITS XML
+	 * @param file the file being examined
+	 */
+	public static void updateFileInfo(Document doc, File file) {
+		Element fileinfo = doc.getRootElement().getChild("fileinfo",ns);
+		if(fileinfo != null) {
+			setText(fileinfo,"filepath",file.getAbsolutePath());
+			setText(fileinfo,"filename",file.getPath());
+			setText(fileinfo,"fslastmodified",String.valueOf(file.lastModified()));
+		}
+	}
+
+	private static void setText(Element parent, String name, String value) {
+		Element child = parent.getChild(name,ns);
+		if(child != null) {
+			child.setText(value);
+		}
+	}
+
+	/* Removes the least recently used entries until the cache is well under its maximum size */
+	private synchronized void evict() {
+		if(size.get() <= maxSize) {
+			return;
+		}
+		List<File> entries = listEntries();
+		Collections.sort(entries,new Comparator<File>() {
+			public int compare(File f1, File f2) {
+				long m1 = f1.lastModified();
+				long m2 = f2.lastModified();
+				return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+			}
+		});
+		long target = maxSize - maxSize/10;
+		for(File f : entries) {
+			if(size.get() <= target) {
+				break;
+			}
+			long length = f.length();
+			if(f.delete()) {
+				size.addAndGet(-length);
+			}
+		}
+	}
+
+	/* All entries for every fingerprint */
+	private List<File> listEntries() {
+		List<File> entries = new ArrayList<File>();
+		listEntries(dir,entries);
+		return entries;
+	}
+
+	private void listEntries(File d, List<File> entries) {
+		File[] files = d.listFiles();
+		if(files == null) {
+			return;
+		}
+		for(File f : files) {
+			if(f.isDirectory()) {
+				listEntries(f,entries);
+			}
+			else if(f.getName().endsWith(".xml")) {
+				entries.add(f);
+			}
+		}
+	}
+
+}
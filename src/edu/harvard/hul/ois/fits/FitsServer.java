@@ -0,0 +1,244 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.GnuParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import edu.harvard.hul.ois.fits.exceptions.FitsException;
+
+/**
+ * Runs FITS as a long lived HTTP service on the loopback interface so that the JVM
+ * and tool startup costs are paid once instead of for every file.
+ * <p>
+ * A file is examined with <code>GET /examine?file=&lt;path&gt;</code>, which returns
+ * the FITS XML.  Adding <code>format=standard</code> or <code>format=combined</code>
+ * returns the same output as the -x and -xc command line options.
+ * <p>
+ * At most maxExamining files are examined at once.  Up to maxWaiting more requests
+ * wait for their turn, and any requests beyond that are refused with 503 so that
+ * clients can retry later.
+ */
+public class FitsServer {
+
+	private Fits fits;
+	private HttpServer server;
+	private ExecutorService requestExecutor;
+	//requests being examined or waiting to be
+	private Semaphore admitted;
+	//requests being examined
+	private Semaphore examining;
+	private int maxAdmitted;
+	private volatile boolean stopping = false;
+
+	public FitsServer(Fits fits, int port, int maxExamining, int maxWaiting) throws IOException {
+		this.fits = fits;
+		maxAdmitted = maxExamining+maxWaiting;
+		admitted = new Semaphore(maxAdmitted);
+		examining = new Semaphore(maxExamining,true);
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getByName(null),port),0);
+		server.createContext("/examine",new ExamineHandler());
+		requestExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "FITS request "+count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		server.setExecutor(requestExecutor);
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * @return the port the server is listening on
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Stops accepting requests and waits for the requests in progress to finish.
+	 * @param delay maximum number of seconds to wait for requests in progress
+	 */
+	public void stop(int delay) {
+		//refuse new requests, then wait until all admitted requests are released
+		stopping = true;
+		try {
+			admitted.tryAcquire(maxAdmitted,delay,TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		server.stop(0);
+		requestExecutor.shutdown();
+	}
+
+	public static void main(String[] args) throws FitsException, IOException, ParseException {
+		Options options = new Options();
+		options.addOption("p",true,"port to listen on (default 2112)");
+		options.addOption("t",true,"number of files examined at once (default process.file-threads)");
+		options.addOption("q",true,"number of requests that may wait to be examined (default 100)");
+		options.addOption("h",false,"print this message");
+
+		CommandLineParser parser = new GnuParser();
+		CommandLine cmd = parser.parse(options, args);
+		if(cmd.hasOption("h")) {
+			HelpFormatter formatter = new HelpFormatter();
+			formatter.printHelp("fits-server", options);
+			System.exit(0);
+		}
+
+		final Fits fits = new Fits();
+		//there is no first file to hide the warm up behind, so warm up unless Fits already has
+		if(!Fits.config.getBoolean("process.warm-up",false)) {
+			fits.getToolbelt().warmUp();
+		}
+
+		int port = Integer.parseInt(cmd.getOptionValue("p","2112"));
+		int maxExamining = Integer.parseInt(cmd.getOptionValue("t",String.valueOf(Fits.fileThreads)));
+		int maxWaiting = Integer.parseInt(cmd.getOptionValue("q","100"));
+		final FitsServer server = new FitsServer(fits,port,maxExamining,maxWaiting);
+
+		//let requests in progress finish when the process is told to stop
+		Runtime.getRuntime().addShutdownHook(new Thread("FITS server shutdown") {
+			public void run() {
+				server.stop(60);
+				fits.shutdown();
+			}
+		});
+		server.start();
+		System.out.println("FITS listening on http://localhost:"+server.getPort()+"/examine");
+	}
+
+	private static Map<String,String> parseQuery(String query) throws UnsupportedEncodingException {
+		Map<String,String> params = new HashMap<String,String>();
+		if(query == null) {
+			return params;
+		}
+		for(String param : query.split("&")) {
+			int i = param.indexOf('=');
+			if(i > 0) {
+				params.put(URLDecoder.decode(param.substring(0,i),"UTF-8"),URLDecoder.decode(param.substring(i+1),"UTF-8"));
+			}
+		}
+		return params;
+	}
+
+	private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type",contentType);
+		exchange.sendResponseHeaders(status,body.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(body);
+		out.close();
+	}
+
+	private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+		respond(exchange,status,"text/plain; charset=UTF-8",(message+"\n").getBytes("UTF-8"));
+	}
+
+	private class ExamineHandler implements HttpHandler {
+
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				if(!exchange.getRequestMethod().equals("GET")) {
+					respond(exchange,405,"Only GET is supported");
+					return;
+				}
+				Map<String,String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+				String path = params.get("file");
+				String format = params.get("format");
+				if(path == null) {
+					respond(exchange,400,"The file parameter is required");
+					return;
+				}
+				if(format != null && !format.equals("fits") && !format.equals("standard") && !format.equals("combined")) {
+					respond(exchange,400,"Unknown format "+format);
+					return;
+				}
+				File file = new File(path);
+				if(!file.isFile()) {
+					respond(exchange,404,path+" does not exist or is not a file");
+					return;
+				}
+				if(stopping) {
+					respond(exchange,503,"Server is shutting down");
+					return;
+				}
+				if(!admitted.tryAcquire()) {
+					respond(exchange,503,"Too many requests");
+					return;
+				}
+				try {
+					examining.acquire();
+					try {
+						FitsOutput result = fits.examine(file);
+						ByteArrayOutputStream out = new ByteArrayOutputStream();
+						Fits.outputResults(result,out,"standard".equals(format),"combined".equals(format));
+						respond(exchange,200,"text/xml; charset=UTF-8",out.toByteArray());
+					}
+					finally {
+						examining.release();
+					}
+				}
+				finally {
+					admitted.release();
+				}
+			}
+			catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+				respond(exchange,503,"Server is shutting down");
+			}
+			catch(Exception e) {
+				respond(exchange,500,"Error examining file: "+e.getMessage());
+			}
+			finally {
+				exchange.close();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,243 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits;
+
+import java.util.BitSet;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Wraps an XMLStreamWriter to put each element, comment and processing instruction
+ * on its own line, indented by its depth.  The end tag of an element that contains
+ * other elements goes on its own line too, while an element that contains text is
+ * written on one line.  Whitespace is only added, so the writer should be given the
+ * content without the whitespace it had for indentation.
+ */
+public class IndentingXMLStreamWriter implements XMLStreamWriter {
+
+	private static final String NEWLINE = "\n";
+
+	private XMLStreamWriter writer;
+	private String indent;
+	private int depth;
+	private boolean started;
+	//the open elements, by depth, that contain markup or text
+	private BitSet hasMarkup = new BitSet();
+	private BitSet hasText = new BitSet();
+
+	public IndentingXMLStreamWriter(XMLStreamWriter writer) {
+		this(writer,"  ");
+	}
+
+	public IndentingXMLStreamWriter(XMLStreamWriter writer, String indent) {
+		this.writer = writer;
+		this.indent = indent;
+	}
+
+	private void beforeMarkup() throws XMLStreamException {
+		if(depth > 0) {
+			hasMarkup.set(depth);
+		}
+		if(started) {
+			newline(depth);
+		}
+		started = true;
+	}
+
+	private void newline(int level) throws XMLStreamException {
+		StringBuilder sb = new StringBuilder(NEWLINE);
+		for(int i=0;i<level;i++) {
+			sb.append(indent);
+		}
+		writer.writeCharacters(sb.toString());
+	}
+
+	private void afterStartElement() {
+		depth++;
+		hasMarkup.clear(depth);
+		hasText.clear(depth);
+	}
+
+	private void text() {
+		if(depth > 0) {
+			hasText.set(depth);
+		}
+	}
+
+	public void writeStartDocument() throws XMLStreamException {
+		writer.writeStartDocument();
+		started = true;
+	}
+
+	public void writeStartDocument(String version) throws XMLStreamException {
+		writer.writeStartDocument(version);
+		started = true;
+	}
+
+	public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+		writer.writeStartDocument(encoding,version);
+		started = true;
+	}
+
+	public void writeEndDocument() throws XMLStreamException {
+		while(depth > 0) {
+			writeEndElement();
+		}
+		if(started) {
+			writer.writeCharacters(NEWLINE);
+		}
+		writer.writeEndDocument();
+	}
+
+	public void writeStartElement(String localName) throws XMLStreamException {
+		beforeMarkup();
+		writer.writeStartElement(localName);
+		afterStartElement();
+	}
+
+	public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+		beforeMarkup();
+		writer.writeStartElement(namespaceURI,localName);
+		afterStartElement();
+	}
+
+	public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+		beforeMarkup();
+		writer.writeStartElement(prefix,localName,namespaceURI);
+		afterStartElement();
+	}
+
+	public void writeEmptyElement(String localName) throws XMLStreamException {
+		beforeMarkup();
+		writer.writeEmptyElement(localName);
+	}
+
+	public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+		beforeMarkup();
+		writer.writeEmptyElement(namespaceURI,localName);
+	}
+
+	public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+		beforeMarkup();
+		writer.writeEmptyElement(prefix,localName,namespaceURI);
+	}
+
+	public void writeEndElement() throws XMLStreamException {
+		if(hasMarkup.get(depth) && !hasText.get(depth)) {
+			newline(depth-1);
+		}
+		depth--;
+		writer.writeEndElement();
+	}
+
+	public void writeComment(String data) throws XMLStreamException {
+		beforeMarkup();
+		writer.writeComment(data);
+	}
+
+	public void writeProcessingInstruction(String target) throws XMLStreamException {
+		beforeMarkup();
+		writer.writeProcessingInstruction(target);
+	}
+
+	public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+		beforeMarkup();
+		writer.writeProcessingInstruction(target,data);
+	}
+
+	public void writeDTD(String dtd) throws XMLStreamException {
+		beforeMarkup();
+		writer.writeDTD(dtd);
+	}
+
+	public void writeCharacters(String text) throws XMLStreamException {
+		text();
+		writer.writeCharacters(text);
+	}
+
+	public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+		text();
+		writer.writeCharacters(text,start,len);
+	}
+
+	public void writeCData(String data) throws XMLStreamException {
+		text();
+		writer.writeCData(data);
+	}
+
+	public void writeEntityRef(String name) throws XMLStreamException {
+		text();
+		writer.writeEntityRef(name);
+	}
+
+	public void writeAttribute(String localName, String value) throws XMLStreamException {
+		writer.writeAttribute(localName,value);
+	}
+
+	public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+		writer.writeAttribute(namespaceURI,localName,value);
+	}
+
+	public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+		writer.writeAttribute(prefix,namespaceURI,localName,value);
+	}
+
+	public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+		writer.writeNamespace(prefix,namespaceURI);
+	}
+
+	public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+		writer.writeDefaultNamespace(namespaceURI);
+	}
+
+	public String getPrefix(String uri) throws XMLStreamException {
+		return writer.getPrefix(uri);
+	}
+
+	public void setPrefix(String prefix, String uri) throws XMLStreamException {
+		writer.setPrefix(prefix,uri);
+	}
+
+	public void setDefaultNamespace(String uri) throws XMLStreamException {
+		writer.setDefaultNamespace(uri);
+	}
+
+	public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+		writer.setNamespaceContext(context);
+	}
+
+	public NamespaceContext getNamespaceContext() {
+		return writer.getNamespaceContext();
+	}
+
+	public Object getProperty(String name) throws IllegalArgumentException {
+		return writer.getProperty(name);
+	}
+
+	public void flush() throws XMLStreamException {
+		writer.flush();
+	}
+
+	public void close() throws XMLStreamException {
+		writer.close();
+	}
+
+}
@@ -0,0 +1,313 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jdom.Attribute;
+import org.jdom.CDATA;
+import org.jdom.Comment;
+import org.jdom.Element;
+import org.jdom.EntityRef;
+import org.jdom.IllegalAddException;
+import org.jdom.IllegalNameException;
+import org.jdom.Namespace;
+import org.jdom.ProcessingInstruction;
+import org.jdom.Text;
+
+/**
+ * Builds the content written to it as JDOM nodes added to an element, so that XML
+ * produced for an XMLStreamWriter can be put into a document without serializing
+ * and parsing it.  Prefixes are resolved against the namespaces in scope at the
+ * element, including those declared by the document it is in, and a prefixed
+ * attribute name passed as a local name is split into prefix and name.
+ */
+public class JDOMXMLStreamWriter implements XMLStreamWriter {
+
+	private Element parent;
+	private Element current;
+	//an empty element stays current until its attributes have been written
+	private boolean inEmptyElement;
+	private NamespaceContext context = new ScopeContext();
+
+	/**
+	 * @param parent the element the content is added to
+	 */
+	public JDOMXMLStreamWriter(Element parent) {
+		this.parent = parent;
+		this.current = parent;
+	}
+
+	private void closeEmptyElement() {
+		if(inEmptyElement) {
+			current = current.getParentElement();
+			inEmptyElement = false;
+		}
+	}
+
+	private void startElement(String prefix, String localName, String namespaceURI, boolean empty) throws XMLStreamException {
+		closeEmptyElement();
+		Element element;
+		try {
+			element = new Element(localName,Namespace.getNamespace(prefix,namespaceURI));
+		}
+		catch(IllegalNameException e) {
+			throw new XMLStreamException(e.getMessage(),e);
+		}
+		current.addContent(element);
+		current = element;
+		inEmptyElement = empty;
+	}
+
+	private void addContent(org.jdom.Content content) {
+		closeEmptyElement();
+		current.addContent(content);
+	}
+
+	/* The namespace bound to the prefix at the current element, or null */
+	private Namespace getNamespace(String prefix) {
+		for(Element e = current; e != null; e = e.getParentElement()) {
+			Namespace ns = e.getNamespace(prefix);
+			if(ns != null) {
+				return ns;
+			}
+			//attributes such as xsi:schemaLocation bind their prefix as well
+			for(Object o : e.getAttributes()) {
+				Namespace attributeNs = ((Attribute)o).getNamespace();
+				if(attributeNs.getPrefix().equals(prefix)) {
+					return attributeNs;
+				}
+			}
+		}
+		return prefix.length() == 0 ? Namespace.NO_NAMESPACE : null;
+	}
+
+	private Namespace getPrefixedNamespace(String namespaceURI) throws XMLStreamException {
+		String prefix = getPrefix(namespaceURI);
+		if(prefix == null) {
+			throw new XMLStreamException("No prefix is bound to "+namespaceURI);
+		}
+		return Namespace.getNamespace(prefix,namespaceURI);
+	}
+
+	public void writeStartDocument() throws XMLStreamException {
+	}
+
+	public void writeStartDocument(String version) throws XMLStreamException {
+	}
+
+	public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+	}
+
+	public void writeEndDocument() throws XMLStreamException {
+		closeEmptyElement();
+		current = parent;
+	}
+
+	public void writeStartElement(String localName) throws XMLStreamException {
+		startElement("",localName,getNamespace("").getURI(),false);
+	}
+
+	public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+		Namespace ns = getPrefixedNamespace(namespaceURI);
+		startElement(ns.getPrefix(),localName,namespaceURI,false);
+	}
+
+	public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+		startElement(prefix,localName,namespaceURI,false);
+	}
+
+	public void writeEmptyElement(String localName) throws XMLStreamException {
+		startElement("",localName,getNamespace("").getURI(),true);
+	}
+
+	public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+		Namespace ns = getPrefixedNamespace(namespaceURI);
+		startElement(ns.getPrefix(),localName,namespaceURI,true);
+	}
+
+	public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+		startElement(prefix,localName,namespaceURI,true);
+	}
+
+	public void writeEndElement() throws XMLStreamException {
+		closeEmptyElement();
+		if(current == parent) {
+			throw new XMLStreamException("No element to end");
+		}
+		current = current.getParentElement();
+	}
+
+	public void writeComment(String data) throws XMLStreamException {
+		addContent(new Comment(data));
+	}
+
+	public void writeProcessingInstruction(String target) throws XMLStreamException {
+		addContent(new ProcessingInstruction(target,""));
+	}
+
+	public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+		addContent(new ProcessingInstruction(target,data));
+	}
+
+	public void writeDTD(String dtd) throws XMLStreamException {
+		throw new XMLStreamException("A DTD can not be written inside an element");
+	}
+
+	public void writeCharacters(String text) throws XMLStreamException {
+		addContent(new Text(text));
+	}
+
+	public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+		addContent(new Text(new String(text,start,len)));
+	}
+
+	public void writeCData(String data) throws XMLStreamException {
+		addContent(new CDATA(data));
+	}
+
+	public void writeEntityRef(String name) throws XMLStreamException {
+		addContent(new EntityRef(name));
+	}
+
+	public void writeAttribute(String localName, String value) throws XMLStreamException {
+		int colon = localName.indexOf(':');
+		if(colon < 0) {
+			setAttribute(new Attribute(localName,value));
+			return;
+		}
+		String prefix = localName.substring(0,colon);
+		Namespace ns = getNamespace(prefix);
+		if(ns == null) {
+			throw new XMLStreamException("Undeclared namespace prefix in attribute "+localName);
+		}
+		setAttribute(new Attribute(localName.substring(colon+1),value,ns));
+	}
+
+	public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+		setAttribute(new Attribute(localName,value,getPrefixedNamespace(namespaceURI)));
+	}
+
+	public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+		setAttribute(new Attribute(localName,value,Namespace.getNamespace(prefix,namespaceURI)));
+	}
+
+	private void setAttribute(Attribute attribute) throws XMLStreamException {
+		if(current == parent && !inEmptyElement) {
+			throw new XMLStreamException("No element to add attribute "+attribute.getQualifiedName()+" to");
+		}
+		try {
+			current.setAttribute(attribute);
+		}
+		catch(IllegalAddException e) {
+			throw new XMLStreamException(e.getMessage(),e);
+		}
+	}
+
+	public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+		if(prefix == null || prefix.length() == 0 || prefix.equals("xmlns")) {
+			writeDefaultNamespace(namespaceURI);
+			return;
+		}
+		declare(Namespace.getNamespace(prefix,namespaceURI));
+	}
+
+	public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+		declare(Namespace.getNamespace("",namespaceURI));
+	}
+
+	private void declare(Namespace ns) throws XMLStreamException {
+		if(ns.equals(current.getNamespace(ns.getPrefix()))) {
+			return;
+		}
+		try {
+			current.addNamespaceDeclaration(ns);
+		}
+		catch(IllegalAddException e) {
+			throw new XMLStreamException(e.getMessage(),e);
+		}
+	}
+
+	public String getPrefix(String uri) throws XMLStreamException {
+		return context.getPrefix(uri);
+	}
+
+	public void setPrefix(String prefix, String uri) throws XMLStreamException {
+		//prefixes are bound by declaring them with writeNamespace
+	}
+
+	public void setDefaultNamespace(String uri) throws XMLStreamException {
+	}
+
+	public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+		this.context = context;
+	}
+
+	public NamespaceContext getNamespaceContext() {
+		return context;
+	}
+
+	public Object getProperty(String name) throws IllegalArgumentException {
+		if(name.equals("javax.xml.stream.isRepairingNamespaces")) {
+			return Boolean.FALSE;
+		}
+		throw new IllegalArgumentException("Unsupported property "+name);
+	}
+
+	public void flush() throws XMLStreamException {
+	}
+
+	public void close() throws XMLStreamException {
+	}
+
+	/* Resolves prefixes and URIs against the namespaces in scope at the current element */
+	private class ScopeContext implements NamespaceContext {
+
+		public String getNamespaceURI(String prefix) {
+			Namespace ns = getNamespace(prefix);
+			return ns == null ? null : ns.getURI();
+		}
+
+		public String getPrefix(String namespaceURI) {
+			for(Element e = current; e != null; e = e.getParentElement()) {
+				if(e.getNamespaceURI().equals(namespaceURI)) {
+					return e.getNamespacePrefix();
+				}
+				for(Object o : e.getAdditionalNamespaces()) {
+					Namespace ns = (Namespace)o;
+					if(ns.getURI().equals(namespaceURI)) {
+						return ns.getPrefix();
+					}
+				}
+			}
+			return null;
+		}
+
+		public Iterator getPrefixes(String namespaceURI) {
+			String prefix = getPrefix(namespaceURI);
+			return prefix == null ? Collections.EMPTY_LIST.iterator() : Collections.singletonList(prefix).iterator();
+		}
+	}
+
+}
@@ -0,0 +1,215 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jdom.Attribute;
+import org.jdom.Comment;
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.EntityRef;
+import org.jdom.Namespace;
+import org.jdom.ProcessingInstruction;
+import org.jdom.Text;
+
+/**
+ * Writes JDOM documents as UTF-8 through a StAX XMLStreamWriter, straight to the
+ * destination stream instead of building the output in memory first.
+ * <p>
+ * When indenting, the output is laid out like XMLOutputter's pretty format: text
+ * is trimmed, whitespace only text is left out and each element is put on its
+ * own line.  Namespaces are declared on the first element that uses them, as
+ * XMLOutputter does.
+ */
+public class XmlStreamOutputter {
+
+	private static XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+
+	private boolean indent;
+
+	/**
+	 * @param indent indent the output and trim text
+	 */
+	public XmlStreamOutputter(boolean indent) {
+		this.indent = indent;
+	}
+
+	/**
+	 * Creates a writer for UTF-8 output to the stream, indenting if this outputter
+	 * indents.  Closing the writer doesn't close the stream.
+	 * @param out
+	 * @return the writer
+	 * @throws XMLStreamException
+	 */
+	public XMLStreamWriter createWriter(OutputStream out) throws XMLStreamException {
+		XMLStreamWriter writer = xmlOutputFactory.createXMLStreamWriter(out,"UTF-8");
+		if(indent) {
+			writer = new IndentingXMLStreamWriter(writer);
+		}
+		return writer;
+	}
+
+	/**
+	 * Writes the document to the stream, leaving the stream open
+	 * @param doc
+	 * @param out
+	 * @throws XMLStreamException
+	 */
+	public void output(Document doc, OutputStream out) throws XMLStreamException {
+		XMLStreamWriter writer = createWriter(out);
+		writer.writeStartDocument("UTF-8","1.0");
+		List<Namespace> scope = new ArrayList<Namespace>();
+		for(Object content : doc.getContent()) {
+			if(content instanceof Element) {
+				output((Element)content,writer,scope);
+			}
+			else if(content instanceof Comment) {
+				writer.writeComment(((Comment)content).getText());
+			}
+			else if(content instanceof ProcessingInstruction) {
+				ProcessingInstruction pi = (ProcessingInstruction)content;
+				writer.writeProcessingInstruction(pi.getTarget(),pi.getData());
+			}
+		}
+		writer.writeEndDocument();
+		writer.flush();
+		writer.close();
+	}
+
+	/**
+	 * Writes an element and its content
+	 * @param element
+	 * @param writer
+	 * @param scope the namespaces already declared by the elements the element is in,
+	 * 	the namespaces declared by this element are added and removed again
+	 * @throws XMLStreamException
+	 */
+	public void output(Element element, XMLStreamWriter writer, List<Namespace> scope) throws XMLStreamException {
+		int declared = scope.size();
+		List<?> content = element.getContent();
+		Namespace ns = element.getNamespace();
+		boolean empty = indent ? isBlank(content) : content.isEmpty();
+		if(empty) {
+			writer.writeEmptyElement(ns.getPrefix(),element.getName(),ns.getURI());
+		}
+		else {
+			writer.writeStartElement(ns.getPrefix(),element.getName(),ns.getURI());
+		}
+		declare(ns,writer,scope);
+		for(Object additional : element.getAdditionalNamespaces()) {
+			declare((Namespace)additional,writer,scope);
+		}
+		for(Object o : element.getAttributes()) {
+			Attribute attribute = (Attribute)o;
+			Namespace attributeNs = attribute.getNamespace();
+			if(attributeNs == Namespace.NO_NAMESPACE) {
+				writer.writeAttribute(attribute.getName(),attribute.getValue());
+			}
+			else {
+				declare(attributeNs,writer,scope);
+				writer.writeAttribute(attributeNs.getPrefix(),attributeNs.getURI(),attribute.getName(),attribute.getValue());
+			}
+		}
+		if(!empty) {
+			outputContent(content,writer,scope);
+			writer.writeEndElement();
+		}
+		while(scope.size() > declared) {
+			scope.remove(scope.size()-1);
+		}
+	}
+
+	private void outputContent(List<?> content, XMLStreamWriter writer, List<Namespace> scope) throws XMLStreamException {
+		StringBuilder text = new StringBuilder();
+		for(Object o : content) {
+			if(o instanceof Text) {
+				//adjacent text, including CDATA sections, is written and trimmed together
+				text.append(((Text)o).getText());
+				continue;
+			}
+			writeText(text,writer);
+			if(o instanceof Element) {
+				output((Element)o,writer,scope);
+			}
+			else if(o instanceof Comment) {
+				writer.writeComment(((Comment)o).getText());
+			}
+			else if(o instanceof ProcessingInstruction) {
+				ProcessingInstruction pi = (ProcessingInstruction)o;
+				writer.writeProcessingInstruction(pi.getTarget(),pi.getData());
+			}
+			else if(o instanceof EntityRef) {
+				writer.writeEntityRef(((EntityRef)o).getName());
+			}
+		}
+		writeText(text,writer);
+	}
+
+	private void writeText(StringBuilder text, XMLStreamWriter writer) throws XMLStreamException {
+		if(text.length() == 0) {
+			return;
+		}
+		String value = indent ? text.toString().trim() : text.toString();
+		if(value.length() > 0) {
+			writer.writeCharacters(value);
+		}
+		text.setLength(0);
+	}
+
+	private boolean isBlank(List<?> content) {
+		for(Object o : content) {
+			if(!(o instanceof Text) || ((Text)o).getTextTrim().length() > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void declare(Namespace ns, XMLStreamWriter writer, List<Namespace> scope) throws XMLStreamException {
+		String prefix = ns.getPrefix();
+		if(prefix.equals("xml")) {
+			return;
+		}
+		String uri = "";
+		for(int i=scope.size()-1;i>=0;i--) {
+			if(scope.get(i).getPrefix().equals(prefix)) {
+				uri = scope.get(i).getURI();
+				break;
+			}
+		}
+		if(uri.equals(ns.getURI())) {
+			return;
+		}
+		if(prefix.length() == 0) {
+			writer.writeDefaultNamespace(ns.getURI());
+		}
+		else {
+			writer.writeNamespace(prefix,ns.getURI());
+		}
+		scope.add(ns);
+	}
+
+}
@@ -0,0 +1,101 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.consolidation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jdom.Attribute;
+import org.jdom.Document;
+import org.jdom.Element;
+
+/**
+ * The hierarchy of generic and specific formats from fits_format_tree.xml,
+ * indexed so that checking whether one format is a more specific version of
+ * another doesn't search the tree.
+ * <p>
+ * Each element is numbered in document order, and each format records the range
+ * of numbers inside its first element.  A format is within another if one of its
+ * elements is numbered inside that range.  Format names are compared ignoring case.
+ */
+public class FormatTree {
+
+	//numbers of the first element of each format and of the last element inside it
+	private Map<String,int[]> ranges = new HashMap<String,int[]>();
+	//numbers of every element of each format, in increasing order
+	private Map<String,List<Integer>> positions = new HashMap<String,List<Integer>>();
+
+	public FormatTree(Document tree) {
+		index(tree.getRootElement(),0);
+	}
+
+	/**
+	 * @param format
+	 * @param generalFormat
+	 * @return true if format is generalFormat or one of the formats below it in the tree
+	 */
+	public boolean isWithin(String format, String generalFormat) {
+		if(format == null || generalFormat == null) {
+			return false;
+		}
+		int[] range = ranges.get(key(generalFormat));
+		List<Integer> formatPositions = positions.get(key(format));
+		if(range == null || formatPositions == null) {
+			return false;
+		}
+		int i = Collections.binarySearch(formatPositions,range[0]);
+		if(i < 0) {
+			i = -(i+1);
+		}
+		return i < formatPositions.size() && formatPositions.get(i) <= range[1];
+	}
+
+	private int index(Element e, int next) {
+		int position = next++;
+		int[] range = null;
+		Attribute format = e.getAttribute("format");
+		if(format != null) {
+			String key = key(format.getValue());
+			List<Integer> formatPositions = positions.get(key);
+			if(formatPositions == null) {
+				formatPositions = new ArrayList<Integer>();
+				positions.put(key,formatPositions);
+				range = new int[] {position,position};
+				ranges.put(key,range);
+			}
+			formatPositions.add(position);
+		}
+		for(Object child : e.getChildren()) {
+			next = index((Element)child,next);
+		}
+		if(range != null) {
+			range[1] = next-1;
+		}
+		return next;
+	}
+
+	private static String key(String format) {
+		return format.toUpperCase(Locale.ENGLISH).toLowerCase(Locale.ENGLISH);
+	}
+
+}
@@ -1,38 +1,38 @@
-/* 
- * Copyright 2009 Harvard University Library
- * 
- * This file is part of FITS (File Information Tool Set).
- * 
- * FITS is free software: you can redistribute it and/or modify
- * it under the terms of the GNU Lesser General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- * 
- * FITS is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU Lesser General Public License for more details.
- * 
- * You should have received a copy of the GNU Lesser General Public License
- * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
- */
-package edu.harvard.hul.ois.fits.exceptions;
-
-public class FitsConfigurationException extends FitsException {
-		
-	/**
-	 * generated serial id
-	 */
-	private static final long serialVersionUID = -513805006091059617L;
-
-	public FitsConfigurationException() {
-		super();
-	}
-    public FitsConfigurationException(String message) {
-        super(message);
-    }
-    public FitsConfigurationException(String message, Exception e) {
-    	super(message,e);
-    }
-
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.exceptions;
+
+public class FitsConfigurationException extends FitsException {
+		
+	/**
+	 * generated serial id
+	 */
+	private static final long serialVersionUID = -513805006091059617L;
+
+	public FitsConfigurationException() {
+		super();
+	}
+    public FitsConfigurationException(String message) {
+        super(message);
+    }
+    public FitsConfigurationException(String message, Exception e) {
+    	super(message,e);
+    }
+
 }
\ No newline at end of file
@@ -1,95 +1,195 @@
-/* 
- * Copyright 2009 Harvard University Library
- * 
- * This file is part of FITS (File Information Tool Set).
- * 
- * FITS is free software: you can redistribute it and/or modify
- * it under the terms of the GNU Lesser General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- * 
- * FITS is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU Lesser General Public License for more details.
- * 
- * You should have received a copy of the GNU Lesser General Public License
- * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
- */
-package edu.harvard.hul.ois.fits.tools;
-
-import java.io.PrintStream;
-import java.util.ArrayList;
-import java.util.List;
-
-import org.apache.commons.configuration.ConfigurationException;
-import org.apache.commons.configuration.XMLConfiguration;
-
-import edu.harvard.hul.ois.fits.exceptions.FitsConfigurationException;
-
-public class ToolBelt {
-	
-	private List<Tool> tools;
-	
-	public ToolBelt(String configFile) throws FitsConfigurationException {
-		XMLConfiguration config = null;
-		try {
-			config = new XMLConfiguration(configFile);
-		} catch (ConfigurationException e) {
-			throw new FitsConfigurationException("Error reading "+configFile,e);
-		}
-	
-		tools = new ArrayList<Tool>();
-		
-		// get number of tools
-		int size = config.getList("tools.tool[@class]").size();
-		// for each tools get the class path and any excluded extensions
-		for(int i=0;i<size;i++) {
-			String tClass = config.getString("tools.tool("+i+")[@class]");
-			@SuppressWarnings("unchecked")
-			List<String> excludes = config.getList("tools.tool("+i+")[@exclude-exts]");
-			@SuppressWarnings("unchecked")
-			List<String> includes = config.getList("tools.tool("+i+")[@include-exts]");
-			Tool t = null;
-			try {
-				@SuppressWarnings("rawtypes")
-				Class c = Class.forName(tClass);
-				t = (Tool)c.newInstance();
-			}
-			catch(Exception e) {
-				throw new FitsConfigurationException("Error initializing "+tClass,e);
-			}
-			if(t != null) {
-				for(String ext : excludes) {
-					t.addExcludedExtension(ext);
-				}
-				for(String ext : includes) {
-					t.addIncludedExtension(ext);
-				}
-				tools.add(t);
-			}
-		}
-	}
-	
-	public List<Tool> getTools() {
-		return tools;
-	}
-	
-	public void printToolInfo() {
-		printToolInfo(false,System.out);
-	}
-	public void printToolInfo(boolean sysInfo, PrintStream p) {
-		if(sysInfo) {
-			//system info
-			p.println("OS Name = "+System.getProperty("os.name"));
-			p.println("OS Arch = "+System.getProperty("os.arch"));
-			p.println("OS Version = "+System.getProperty("os.version"));
-			p.println("------------------------------------");
-		}
-		
-		for(Tool t : tools) {
-			p.print(t.getToolInfo().print());
-		}
-
-	}
-}
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.XMLConfiguration;
+
+import edu.harvard.hul.ois.fits.exceptions.FitsConfigurationException;
+
+/**
+ * The tools configured in fits.xml, in order of preference.  The tools are
+ * independent of each other so they are created, and optionally warmed up, in
+ * parallel.  The time each tool took to start is recorded.
+ */
+public class ToolBelt {
+	
+	private List<Tool> tools;
+	private Map<Tool,Long> startupTimes = new Hashtable<Tool,Long>();
+	
+	public ToolBelt(String configFile) throws FitsConfigurationException {
+		XMLConfiguration config = null;
+		try {
+			config = new XMLConfiguration(configFile);
+		} catch (ConfigurationException e) {
+			throw new FitsConfigurationException("Error reading "+configFile,e);
+		}
+	
+		tools = new ArrayList<Tool>();
+		
+		// get number of tools
+		int size = config.getList("tools.tool[@class]").size();
+		
+		//start creating all of the tools
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1,size));
+		List<Future<Tool>> futures = new ArrayList<Future<Tool>>();
+		for(int i=0;i<size;i++) {
+			final String tClass = config.getString("tools.tool("+i+")[@class]");
+			futures.add(executor.submit(new Callable<Tool>() {
+				public Tool call() throws Exception {
+					long startTime = System.currentTimeMillis();
+					@SuppressWarnings("rawtypes")
+					Class c = Class.forName(tClass);
+					Tool t = (Tool)c.newInstance();
+					startupTimes.put(t,System.currentTimeMillis()-startTime);
+					return t;
+				}
+			}));
+		}
+		executor.shutdown();
+		
+		// for each tools get the class path and any excluded extensions
+		for(int i=0;i<size;i++) {
+			String tClass = config.getString("tools.tool("+i+")[@class]");
+			@SuppressWarnings("unchecked")
+			List<String> excludes = config.getList("tools.tool("+i+")[@exclude-exts]");
+			@SuppressWarnings("unchecked")
+			List<String> includes = config.getList("tools.tool("+i+")[@include-exts]");
+			//timeout is given in seconds
+			long timeout = config.getLong("tools.tool("+i+")[@timeout]",0);
+			Tool t = waitFor(futures.get(i),"Error initializing "+tClass);
+			if(t != null) {
+				for(String ext : excludes) {
+					t.addExcludedExtension(ext);
+				}
+				for(String ext : includes) {
+					t.addIncludedExtension(ext);
+				}
+				t.setTimeout(timeout*1000);
+				tools.add(t);
+			}
+		}
+	}
+	
+	/**
+	 * Warms up all of the enabled tools in parallel.  The time taken is added to
+	 * the startup time of each tool.  A tool that fails to warm up is reported to
+	 * standard error and will do the work when it examines its first file instead.
+	 */
+	public void warmUp() {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1,tools.size()));
+		List<Future<Tool>> futures = new ArrayList<Future<Tool>>();
+		List<String> names = new ArrayList<String>();
+		for(final Tool t : tools) {
+			if(t.isEnabled()) {
+				names.add(t.getToolInfo().getName());
+				futures.add(executor.submit(new Callable<Tool>() {
+					public Tool call() throws Exception {
+						long startTime = System.currentTimeMillis();
+						try {
+							t.warmUp();
+						}
+						finally {
+							startupTimes.put(t,getStartupTime(t)+System.currentTimeMillis()-startTime);
+						}
+						return t;
+					}
+				}));
+			}
+		}
+		executor.shutdown();
+		for(int i=0;i<futures.size();i++) {
+			try {
+				waitFor(futures.get(i),"Error warming up "+names.get(i));
+			}
+			catch(FitsConfigurationException e) {
+				System.err.println(e.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Closes all of the tools, stopping any processes they keep running
+	 */
+	public void close() {
+		for(Tool t : tools) {
+			t.close();
+		}
+	}
+	
+	/**
+	 * @param t
+	 * @return milliseconds taken to create and warm up the tool
+	 */
+	public long getStartupTime(Tool t) {
+		Long time = startupTimes.get(t);
+		return time == null ? 0 : time;
+	}
+	
+	private Tool waitFor(Future<Tool> future, String message) throws FitsConfigurationException {
+		try {
+			return future.get();
+		}
+		catch(ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof Error) {
+				throw (Error)cause;
+			}
+			throw new FitsConfigurationException(message,(Exception)cause);
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FitsConfigurationException(message,e);
+		}
+	}
+	
+	public List<Tool> getTools() {
+		return tools;
+	}
+	
+	public void printToolInfo() {
+		printToolInfo(false,System.out);
+	}
+	public void printToolInfo(boolean sysInfo, PrintStream p) {
+		if(sysInfo) {
+			//system info
+			p.println("OS Name = "+System.getProperty("os.name"));
+			p.println("OS Arch = "+System.getProperty("os.arch"));
+			p.println("OS Version = "+System.getProperty("os.version"));
+			p.println("------------------------------------");
+		}
+		
+		for(Tool t : tools) {
+			p.print(t.getToolInfo().print());
+			p.println("Startup time= "+getStartupTime(t)+" ms");
+		}
+
+	}
+}
@@ -0,0 +1,168 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.input.SAXBuilder;
+import org.jdom.output.XMLOutputter;
+
+import com.twmacinta.util.MD5;
+
+import edu.harvard.hul.ois.fits.FitsResultCache;
+
+/**
+ * A persistent cache of the output of each tool keyed by the MD5 of the file
+ * content, the path of the file and the tool's name, version and note.  When a
+ * tool is upgraded or enabled only that tool has to be run again, and the output
+ * of the others is taken from the cache and consolidated with it.
+ * <p>
+ * The path is part of the key because some tools report the file name and
+ * location in their raw output.  The fslastmodified element is replaced with the
+ * current value as a file may be touched without changing its content.
+ * <p>
+ * The mapped FITS XML is cached, so entries are kept under a directory named after
+ * a fingerprint of the FITS version and fits_xml_map.xml.  Changes to a tool's
+ * stylesheets are not detected, the cache should be cleared after editing them.
+ */
+public class ToolOutputCache {
+
+	private File entryDir;
+	private AtomicLong hits = new AtomicLong();
+	private AtomicLong misses = new AtomicLong();
+	private SAXBuilder saxBuilder = new SAXBuilder();
+
+	/**
+	 * @param dir directory holding the cache
+	 * @param fingerprint identifies the FITS version and configuration
+	 */
+	public ToolOutputCache(File dir, String fingerprint) {
+		this.entryDir = new File(dir,fingerprint);
+		entryDir.mkdirs();
+		//don't cache the underlying parser so the builder can be shared between threads
+		saxBuilder.setReuseParser(false);
+	}
+
+	/**
+	 * Returns the cached output of the tool for the file
+	 * @param tool
+	 * @param key the key for the content of the file
+	 * @param file the file being examined
+	 * @return the cached output or null if there isn't one for this version of the tool
+	 */
+	public ToolOutput get(Tool tool, String key, File file) {
+		Document doc = null;
+		try {
+			doc = saxBuilder.build(getEntry(tool,key,file));
+		}
+		catch(Exception e) {
+			//missing or unreadable
+		}
+		if(doc == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		Element root = doc.getRootElement();
+		Document fitsXml = getDocument(root,"fitsXml");
+		if(fitsXml != null) {
+			FitsResultCache.updateFileInfo(fitsXml,file);
+		}
+		return ToolOutput.restore(tool,fitsXml,getDocument(root,"rawOutput"));
+	}
+
+	/**
+	 * Caches the output of the tool for the file
+	 * @param key the key for the content of the file
+	 * @param file the file that was examined
+	 * @param output the output to cache
+	 * @throws IOException
+	 */
+	public void put(String key, File file, ToolOutput output) throws IOException {
+		Element root = new Element("cachedToolOutput");
+		addDocument(root,"fitsXml",output.getFitsXml());
+		addDocument(root,"rawOutput",output.getToolOutput());
+
+		File entry = getEntry(output.getTool(),key,file);
+		entry.getParentFile().mkdirs();
+		//write to a temporary file so readers never see a partial entry
+		File tmp = File.createTempFile("entry",".tmp",entry.getParentFile());
+		OutputStream out = new FileOutputStream(tmp);
+		try {
+			new XMLOutputter().output(new Document(root),out);
+		}
+		finally {
+			out.close();
+		}
+		if(!tmp.renameTo(entry)) {
+			//another thread cached the same content
+			tmp.delete();
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	private File getEntry(Tool tool, String key, File file) {
+		ToolInfo info = tool.getToolInfo();
+		String toolKey = hash(info.getName()+"|"+info.getVersion()+"|"+info.getNote());
+		String fileKey = hash(key+"|"+file.getAbsolutePath());
+		//spread the entries over sub directories
+		return new File(new File(new File(entryDir,toolKey),fileKey.substring(0,2)),fileKey+".xml");
+	}
+
+	private static String hash(String s) {
+		MD5 md5 = new MD5();
+		try {
+			md5.Update(s,"UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			//UTF-8 is always supported
+		}
+		return md5.asHex();
+	}
+
+	private void addDocument(Element root, String name, Document doc) {
+		if(doc != null && doc.hasRootElement()) {
+			Element wrapper = new Element(name);
+			wrapper.addContent((Element)doc.getRootElement().clone());
+			root.addContent(wrapper);
+		}
+	}
+
+	private Document getDocument(Element root, String name) {
+		Element wrapper = root.getChild(name);
+		if(wrapper == null || wrapper.getChildren().isEmpty()) {
+			return null;
+		}
+		return new Document((Element)((Element)wrapper.getChildren().get(0)).detach());
+	}
+
+}
@@ -0,0 +1,218 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.validation.Validator;
+
+import org.jdom.Document;
+import org.jdom.transform.JDOMSource;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import edu.harvard.hul.ois.fits.tools.utils.SchemaCache;
+
+/**
+ * Validates the FITS XML produced by the tools against the internal output schema.
+ * Validation can be limited to a sample of each tool's output, validating one in
+ * every sampleRate outputs of a tool, and can run on a low priority background
+ * thread instead of delaying the file being examined.
+ * <p>
+ * Output that doesn't match the schema is reported on stderr and still used.  The
+ * background thread validates a copy of the output, so its result is only reported
+ * on stderr and in the counts added to the statistics of later files.
+ */
+public class ToolOutputValidator {
+
+	public enum Result {VALID,INVALID,FAILED,NOT_SAMPLED,QUEUED,DROPPED};
+
+	//outputs waiting for the background thread, more are dropped
+	private static final int MAX_QUEUED = 1000;
+
+	private String schema;
+	private int sampleRate;
+	private ThreadPoolExecutor executor;
+	private ConcurrentMap<Tool,AtomicLong> outputCounts = new ConcurrentHashMap<Tool,AtomicLong>();
+	private AtomicLong validated = new AtomicLong();
+	private AtomicLong invalid = new AtomicLong();
+	private AtomicLong dropped = new AtomicLong();
+	private int pending;
+
+	/**
+	 * @param schema path to the schema
+	 * @param sampleRate validate one in this many outputs of each tool
+	 * @param async validate on a background thread
+	 */
+	public ToolOutputValidator(String schema, int sampleRate, boolean async) {
+		this.schema = schema;
+		this.sampleRate = Math.max(1,sampleRate);
+		if(async) {
+			executor = new ThreadPoolExecutor(1,1,0,TimeUnit.MILLISECONDS,
+					new LinkedBlockingQueue<Runnable>(MAX_QUEUED),new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r,"FITS validation");
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Validates the output of a tool if it is in the sample
+	 * @param tool
+	 * @param fitsXml the tool's FITS XML before it is mapped
+	 * @return the result, or QUEUED if the output will be validated in the background
+	 */
+	public Result validate(final Tool tool, Document fitsXml) {
+		if(!isSampled(tool)) {
+			return Result.NOT_SAMPLED;
+		}
+		if(executor == null) {
+			return check(tool,fitsXml);
+		}
+		//the output is changed by mapping and consolidation, so validate a copy
+		final Document copy = (Document)fitsXml.clone();
+		synchronized(this) {
+			pending++;
+		}
+		try {
+			executor.execute(new Runnable() {
+				public void run() {
+					try {
+						check(tool,copy);
+					}
+					finally {
+						done();
+					}
+				}
+			});
+		}
+		catch(RejectedExecutionException e) {
+			done();
+			dropped.incrementAndGet();
+			return Result.DROPPED;
+		}
+		return Result.QUEUED;
+	}
+
+	/**
+	 * Waits for the outputs queued for the background thread to be validated
+	 * @param timeout milliseconds to wait
+	 * @return true if none are left
+	 * @throws InterruptedException
+	 */
+	public synchronized boolean awaitPending(long timeout) throws InterruptedException {
+		long end = System.currentTimeMillis()+timeout;
+		while(pending > 0) {
+			long left = end-System.currentTimeMillis();
+			if(left <= 0) {
+				return false;
+			}
+			wait(left);
+		}
+		return true;
+	}
+
+	/**
+	 * @return number of outputs validated
+	 */
+	public long getValidatedCount() {
+		return validated.get();
+	}
+
+	/**
+	 * @return number of outputs that didn't match the schema or couldn't be validated
+	 */
+	public long getInvalidCount() {
+		return invalid.get();
+	}
+
+	/**
+	 * @return number of outputs not validated because the background queue was full
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	private boolean isSampled(Tool tool) {
+		if(sampleRate == 1) {
+			return true;
+		}
+		AtomicLong count = outputCounts.get(tool);
+		if(count == null) {
+			count = new AtomicLong();
+			AtomicLong existing = outputCounts.putIfAbsent(tool,count);
+			if(existing != null) {
+				count = existing;
+			}
+		}
+		return count.getAndIncrement() % sampleRate == 0;
+	}
+
+	private Result check(Tool tool, Document fitsXml) {
+		final String toolName = tool.getToolInfo().getName();
+		final AtomicLong errors = new AtomicLong();
+		try {
+			//the compiled schema is shared, the validator belongs to this thread
+			Validator validator = SchemaCache.getValidator(schema);
+			validator.setErrorHandler(new ErrorHandler() {
+				public void warning(SAXParseException e) {
+				}
+				public void error(SAXParseException e) {
+					errors.incrementAndGet();
+					System.err.println("Warning: "+toolName+" produced FITS XML that doesn't match the schema: "+e.getMessage());
+				}
+				public void fatalError(SAXParseException e) throws SAXException {
+					throw e;
+				}
+			});
+			validator.validate(new JDOMSource(fitsXml));
+		}
+		catch(Exception e) {
+			System.err.println("Warning: could not validate "+toolName+" FITS XML");
+			e.printStackTrace();
+			invalid.incrementAndGet();
+			return Result.FAILED;
+		}
+		validated.incrementAndGet();
+		if(errors.get() > 0) {
+			invalid.incrementAndGet();
+			return Result.INVALID;
+		}
+		return Result.VALID;
+	}
+
+	private synchronized void done() {
+		if(--pending == 0) {
+			notifyAll();
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools;
+
+import java.io.File;
+
+import edu.harvard.hul.ois.fits.exceptions.FitsToolException;
+import edu.harvard.hul.ois.fits.tools.Tool.RunStatus;
+
+/**
+ * A single invocation of a Tool against a single input file.  Holds all of the
+ * per-file state (output, execution time, run status) so the Tool instances in
+ * the ToolBelt can be shared by concurrent calls to Fits.examine().
+ */
+public class ToolRun implements Runnable {
+
+	private Tool tool;
+	private File inputFile;
+	private ToolOutput output;
+	private long duration;
+	private RunStatus runStatus;
+	private Exception exception;
+	private long queueTime;
+	private volatile long startTime;
+	private volatile boolean finished;
+
+	public ToolRun(Tool tool, File inputFile, RunStatus runStatus) {
+		this.tool = tool;
+		this.inputFile = inputFile;
+		this.runStatus = runStatus;
+	}
+
+	public void run() {
+		synchronized(this) {
+			//a run abandoned while it was queued does not start the tool
+			if(runStatus == RunStatus.TIMEOUT) {
+				finished = true;
+				return;
+			}
+			startTime = System.currentTimeMillis();
+		}
+		ToolOutput result = null;
+		Exception failure = null;
+		try {
+			result = tool.extractInfo(inputFile);
+		} catch (Exception e) {
+			failure = e;
+		}
+		finished = true;
+		synchronized(this) {
+			//the results of an abandoned run are discarded
+			if(runStatus == RunStatus.TIMEOUT) {
+				return;
+			}
+			output = result;
+			exception = failure;
+			runStatus = failure == null ? RunStatus.SUCCESSFUL : RunStatus.FAILED;
+			duration = System.currentTimeMillis()-startTime;
+		}
+		if(failure != null) {
+			failure.printStackTrace();
+		}
+	}
+
+	/**
+	 * Abandons the run if the tool has not finished yet.  Any output the tool
+	 * produces afterwards is discarded.
+	 * @return true if the run was abandoned, false if it had already finished
+	 */
+	public synchronized boolean timeout() {
+		if(runStatus != RunStatus.SHOULDRUN) {
+			return false;
+		}
+		runStatus = RunStatus.TIMEOUT;
+		if(startTime > 0) {
+			duration = System.currentTimeMillis()-startTime;
+		}
+		exception = new FitsToolException(tool.getToolInfo().getName()+" timed out after "+duration+" ms examining "+inputFile.getPath());
+		return true;
+	}
+
+	/**
+	 * Marks the run as skipped without running the tool, because an earlier
+	 * run of the serialized tool timed out and is still running
+	 */
+	public synchronized void skip() {
+		runStatus = RunStatus.SKIPPED;
+		finished = true;
+		exception = new FitsToolException(tool.getToolInfo().getName()+" skipped for "+inputFile.getPath()+", an earlier run timed out and has not finished");
+	}
+
+	/**
+	 * Records the time the run was queued, which is when its timeout starts
+	 */
+	public synchronized void setQueueTime(long queueTime) {
+		this.queueTime = queueTime;
+	}
+
+	public synchronized long getQueueTime() {
+		return queueTime;
+	}
+
+	/**
+	 * Uses output cached from a previous run instead of running the tool
+	 * @param cached
+	 */
+	public synchronized void setCachedOutput(ToolOutput cached) {
+		output = cached;
+		runStatus = RunStatus.CACHED;
+	}
+
+	/**
+	 * @return the time the tool started running, or 0 if it has not started yet
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return true if the tool has returned, or will never be started
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	public Tool getTool() {
+		return tool;
+	}
+
+	public File getInputFile() {
+		return inputFile;
+	}
+
+	public synchronized ToolOutput getOutput() {
+		return output;
+	}
+
+	public synchronized long getDuration() {
+		return duration;
+	}
+
+	public synchronized RunStatus getRunStatus() {
+		return runStatus;
+	}
+
+	public synchronized Exception getException() {
+		return exception;
+	}
+
+}
@@ -0,0 +1,216 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools.exiftool;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import edu.harvard.hul.ois.fits.exceptions.FitsToolCLIException;
+
+/**
+ * A pool of long running exiftool processes started in -stay_open mode.  The
+ * arguments for each file are written to a process' standard input and the output
+ * is read back up to the {ready} marker, so perl is not started and the exiftool
+ * modules are not loaded again for every file.  Processes are started as needed up
+ * to the size of the pool.  A process that dies is discarded and replaced.
+ * <p>
+ * The arguments are written and the output read as UTF-8, whatever the platform's
+ * default charset.
+ */
+class ExiftoolProcessPool {
+
+	private final static String READY = "{ready}";
+
+	private List<String> command;
+	private int size;
+	private BlockingQueue<ExiftoolProcess> idle = new LinkedBlockingQueue<ExiftoolProcess>();
+	private List<ExiftoolProcess> processes = new ArrayList<ExiftoolProcess>();
+	private Thread shutdownHook;
+
+	/**
+	 * @param command the command used to start exiftool
+	 * @param size the maximum number of processes
+	 */
+	ExiftoolProcessPool(List<String> command, int size) {
+		this.command = command;
+		this.size = size;
+	}
+
+	/**
+	 * Runs exiftool with the arguments in one of the pooled processes
+	 * @param args arguments for a single exiftool invocation
+	 * @return standard output and standard error of the invocation
+	 * @throws FitsToolCLIException
+	 */
+	String exec(List<String> args) throws FitsToolCLIException {
+		//if a process crashed try once more with a new one
+		for(int attempt=1;;attempt++) {
+			ExiftoolProcess process = acquire();
+			try {
+				String output = process.exec(args);
+				idle.add(process);
+				return output;
+			}
+			catch(IOException e) {
+				discard(process);
+				if(attempt == 2) {
+					throw new FitsToolCLIException("Error calling exiftool",e);
+				}
+			}
+		}
+	}
+
+	private ExiftoolProcess acquire() throws FitsToolCLIException {
+		try {
+			while(true) {
+				ExiftoolProcess process = idle.poll();
+				if(process == null) {
+					process = start();
+				}
+				if(process == null) {
+					//all processes are busy, wait for one to be returned
+					process = idle.poll(1,TimeUnit.SECONDS);
+				}
+				if(process != null) {
+					return process;
+				}
+			}
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FitsToolCLIException("Interrupted while waiting for exiftool",e);
+		}
+	}
+
+	/* Starts a new process if the pool isn't full */
+	private synchronized ExiftoolProcess start() throws FitsToolCLIException {
+		if(processes.size() >= size) {
+			return null;
+		}
+		if(shutdownHook == null) {
+			//exiftool keeps waiting for input after the JVM exits unless told to stop
+			shutdownHook = new Thread("FITS exiftool shutdown") {
+				public void run() {
+					stopProcesses();
+				}
+			};
+			Runtime.getRuntime().addShutdownHook(shutdownHook);
+		}
+		try {
+			ExiftoolProcess process = new ExiftoolProcess(command);
+			processes.add(process);
+			return process;
+		}
+		catch(IOException e) {
+			throw new FitsToolCLIException("Error starting exiftool",e);
+		}
+	}
+
+	private synchronized void discard(ExiftoolProcess process) {
+		processes.remove(process);
+		process.destroy();
+	}
+
+	/**
+	 * Stops all of the processes.  The pool starts new processes if it is used again.
+	 */
+	synchronized void close() {
+		if(shutdownHook != null) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(shutdownHook);
+			}
+			catch(IllegalStateException e) {
+				//the JVM is already shutting down and the hook will stop the processes
+			}
+			shutdownHook = null;
+		}
+		stopProcesses();
+	}
+
+	private synchronized void stopProcesses() {
+		for(ExiftoolProcess process : processes) {
+			process.close();
+		}
+		processes.clear();
+		idle.clear();
+	}
+
+	private static class ExiftoolProcess {
+
+		private Process process;
+		private Writer in;
+		private BufferedReader out;
+
+		private ExiftoolProcess(List<String> command) throws IOException {
+			List<String> cmd = new ArrayList<String>(command);
+			cmd.addAll(Arrays.asList("-stay_open","True","-@","-"));
+			ProcessBuilder builder = new ProcessBuilder(cmd);
+			builder.redirectErrorStream(true);
+			process = builder.start();
+			in = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(),"UTF-8"));
+			out = new BufferedReader(new InputStreamReader(process.getInputStream(),"UTF-8"));
+		}
+
+		private String exec(List<String> args) throws IOException {
+			//one argument per line, followed by -execute to run them
+			for(String arg : args) {
+				in.write(arg);
+				in.write("\n");
+			}
+			in.write("-execute\n");
+			in.flush();
+
+			StringBuilder output = new StringBuilder();
+			String line;
+			while((line = out.readLine()) != null) {
+				if(line.equals(READY)) {
+					return output.toString();
+				}
+				output.append(line);
+				output.append("\n");
+			}
+			throw new IOException("exiftool exited unexpectedly");
+		}
+
+		private void close() {
+			try {
+				in.write("-stay_open\nFalse\n");
+				in.close();
+			}
+			catch(IOException e) {
+				process.destroy();
+			}
+		}
+
+		private void destroy() {
+			process.destroy();
+		}
+	}
+
+}
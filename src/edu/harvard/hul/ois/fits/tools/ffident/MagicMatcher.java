@@ -0,0 +1,155 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools.ffident;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Finds the first format description in a list whose magic bytes match the start
+ * of a file, without testing the descriptions one by one.  The magic bytes are
+ * compiled into a trie for each distinct offset, so identification walks the
+ * header once per offset no matter how many descriptions share it.
+ * <p>
+ * Each trie node records the lowest list position of the descriptions ending at
+ * it and of any description below it.  The walk stops as soon as no description
+ * further down could come before the best match found so far, which keeps the
+ * first match in list order, as with a linear search.
+ */
+public class MagicMatcher {
+
+	private static final int NONE = Integer.MAX_VALUE;
+
+	private List<FormatDescription> descriptions;
+	private int[] offsets;
+	private Node[] roots;
+	private int minBufferSize = 1;
+
+	/**
+	 * @param descriptions the descriptions in order of priority
+	 */
+	public MagicMatcher(List<FormatDescription> descriptions) {
+		this.descriptions = new ArrayList<FormatDescription>(descriptions);
+		Map<Integer,Node> tries = new TreeMap<Integer,Node>();
+		for(int i=0;i<this.descriptions.size();i++) {
+			FormatDescription desc = this.descriptions.get(i);
+			byte[] magic = desc.getMagicBytes();
+			Integer offset = desc.getOffset();
+			//descriptions without magic bytes never match
+			if(magic == null || magic.length == 0 || offset == null || offset.intValue() < 0) {
+				continue;
+			}
+			Node root = tries.get(offset);
+			if(root == null) {
+				root = new Node();
+				tries.put(offset,root);
+			}
+			root.add(magic,i);
+			minBufferSize = Math.max(minBufferSize,offset.intValue()+magic.length);
+		}
+		offsets = new int[tries.size()];
+		roots = new Node[tries.size()];
+		int n = 0;
+		for(Map.Entry<Integer,Node> entry : tries.entrySet()) {
+			offsets[n] = entry.getKey().intValue();
+			roots[n] = entry.getValue();
+			n++;
+		}
+	}
+
+	/**
+	 * @return the number of bytes needed to test every description
+	 */
+	public int getMinBufferSize() {
+		return minBufferSize;
+	}
+
+	/**
+	 * @param data the start of a file, only read with absolute gets
+	 * @return the first matching description or null
+	 */
+	public FormatDescription match(ByteBuffer data) {
+		int best = NONE;
+		int limit = data.limit();
+		for(int i=0;i<roots.length;i++) {
+			Node node = roots[i];
+			int pos = offsets[i];
+			while(node != null && node.bestBelow < best) {
+				if(node.best < best) {
+					best = node.best;
+				}
+				if(pos >= limit) {
+					break;
+				}
+				node = node.child(data.get(pos++));
+			}
+		}
+		return best == NONE ? null : descriptions.get(best);
+	}
+
+	private static class Node {
+		//children sorted by key for binary search
+		private byte[] keys = new byte[0];
+		private Node[] children = new Node[0];
+		//lowest position of a description ending here
+		private int best = NONE;
+		//lowest position of a description ending here or below
+		private int bestBelow = NONE;
+
+		private void add(byte[] magic, int position) {
+			Node node = this;
+			node.bestBelow = Math.min(node.bestBelow,position);
+			for(byte b : magic) {
+				Node child = node.child(b);
+				if(child == null) {
+					child = node.addChild(b);
+				}
+				node = child;
+				node.bestBelow = Math.min(node.bestBelow,position);
+			}
+			node.best = Math.min(node.best,position);
+		}
+
+		private Node child(byte key) {
+			int i = Arrays.binarySearch(keys,key);
+			return i < 0 ? null : children[i];
+		}
+
+		private Node addChild(byte key) {
+			int i = -(Arrays.binarySearch(keys,key)+1);
+			byte[] newKeys = new byte[keys.length+1];
+			Node[] newChildren = new Node[children.length+1];
+			System.arraycopy(keys,0,newKeys,0,i);
+			System.arraycopy(children,0,newChildren,0,i);
+			System.arraycopy(keys,i,newKeys,i+1,keys.length-i);
+			System.arraycopy(children,i,newChildren,i+1,children.length-i);
+			Node child = new Node();
+			newKeys[i] = key;
+			newChildren[i] = child;
+			keys = newKeys;
+			children = newChildren;
+			return child;
+		}
+	}
+
+}
@@ -1,9 +1,9 @@
 package edu.harvard.hul.ois.fits.tools.tika;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.io.StringReader;
 
 
@@ -12,6 +12,7 @@ import edu.harvard.hul.ois.fits.tools.ToolBase;
 import edu.harvard.hul.ois.fits.tools.ToolOutput;
 import edu.harvard.hul.ois.fits.Fits;
 import edu.harvard.hul.ois.fits.tools.ToolInfo;
+import edu.harvard.hul.ois.fits.tools.utils.FitsInput;
 import edu.harvard.hul.ois.fits.tools.utils.XmlUtils;
 
 import org.apache.tika.Tika;
@@ -50,19 +51,31 @@ public class TikaTool extends ToolBase {
     }
 
     public ToolOutput extractInfo(File file) throws FitsToolException {
-    	long startTime = System.currentTimeMillis();
         Metadata metadata = new Metadata(); // = new Metadata();
-        FileInputStream instrm = null;
+        InputStream instrm = null;
         try {
-            instrm = new FileInputStream (file);
+            instrm = FitsInput.get(file).getInputStream();
         }
-        catch (FileNotFoundException e) {
+        catch (IOException e) {
             throw new FitsToolException ("Can't open file with Tika", e);
         }
         try {
-            tika.parse (instrm, metadata);
+            // The reader parses in a background thread, so the stream is only
+            // closed once the reader has been drained and the metadata is complete
+            Reader rdr = tika.parse (instrm, metadata);
+            try {
+                char[] buf = new char[8192];
+                while (rdr.read (buf) != -1);
+            } finally {
+                rdr.close();
+            }
         } catch (IOException e) {
             throw new FitsToolException ("IOException in Tika", e);
+        } finally {
+            try {
+                instrm.close();
+            } catch (IOException e) {
+            }
         }
         // convert the information in metadata to FITS output.
         String [] propertyNames = metadata.names();
@@ -77,8 +90,6 @@ public class TikaTool extends ToolBase {
         // Now construct the raw data JDOM document
         Document rawData = buildRawData (metadata);
         ToolOutput output = new ToolOutput (this, toolData, rawData);
-        duration = System.currentTimeMillis()-startTime;
-        runStatus = RunStatus.SUCCESSFUL;
         return output;
     }
 
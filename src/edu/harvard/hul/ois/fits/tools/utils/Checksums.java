@@ -0,0 +1,234 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import org.apache.commons.configuration.Configuration;
+
+/**
+ * Calculates several checksums of a stream in a single pass.  Every checksum is
+ * updated from the same chunk of the stream.  For large files each checksum can
+ * be updated by its own thread while the next chunk is read.
+ * <p>
+ * The supported checksums are md5, sha1, sha256, sha512 and crc32.  The checksums
+ * FITS calculates for every file are set by fileinfo_checksums in fits.xml, which
+ * is read with {@link #getConfigured(Configuration)}.
+ */
+public class Checksums {
+
+	public static final String MD5 = "md5";
+	public static final List<String> SUPPORTED = Collections.unmodifiableList(Arrays.asList(MD5,"sha1","sha256","sha512","crc32"));
+
+	private static final int CHUNK_SIZE = 1024*1024;
+
+	private static ExecutorService digestExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+		private final AtomicInteger count = new AtomicInteger();
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "FITS checksum "+count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/**
+	 * Reads the checksums calculated for every file from fileinfo_checksums
+	 * @param config the FITS configuration
+	 * @return names of the checksums, md5 if none are configured
+	 * @throws IllegalArgumentException if a checksum isn't supported
+	 */
+	public static List<String> getConfigured(Configuration config) {
+		List<String> checksums = new ArrayList<String>();
+		for(String name : config.getStringArray("fileinfo_checksums")) {
+			name = name.trim().toLowerCase();
+			if(name.length() == 0) {
+				continue;
+			}
+			if(!SUPPORTED.contains(name)) {
+				throw new IllegalArgumentException("Unsupported checksum "+name+" in fileinfo_checksums, the supported checksums are "+SUPPORTED);
+			}
+			checksums.add(name);
+		}
+		if(checksums.isEmpty()) {
+			checksums.add(MD5);
+		}
+		return Collections.unmodifiableList(checksums);
+	}
+
+	/**
+	 * Reads the size above which the checksums of a file are calculated in parallel
+	 * from fileinfo_checksums
+	 * @param config the FITS configuration
+	 * @return the size in bytes, 0 to always use a single thread
+	 */
+	public static long getParallelThreshold(Configuration config) {
+		return config.getLong("fileinfo_checksums[@parallel-above-mb]",0)*1024*1024;
+	}
+
+	/**
+	 * Reads the stream to the end and calculates the checksums
+	 * @param in the stream, which the caller must close
+	 * @param checksums names of the checksums
+	 * @param parallel update each checksum in its own thread
+	 * @return hex encoded checksums by name, in the order requested
+	 * @throws IOException
+	 */
+	public static Map<String,String> calculate(InputStream in, Collection<String> checksums, boolean parallel) throws IOException {
+		final List<Digester> digesters = new ArrayList<Digester>();
+		for(String name : checksums) {
+			digesters.add(createDigester(name));
+		}
+		if(!parallel || digesters.size() < 2) {
+			byte[] buffer = new byte[CHUNK_SIZE];
+			int read;
+			while((read = readChunk(in,buffer)) > 0) {
+				for(Digester d : digesters) {
+					d.update(buffer,0,read);
+				}
+			}
+		}
+		else {
+			//read one chunk while the checksums are updated from the other
+			byte[][] buffers = new byte[][] {new byte[CHUNK_SIZE],new byte[CHUNK_SIZE]};
+			List<Future<?>> pending = new ArrayList<Future<?>>();
+			int current = 0;
+			int read;
+			while((read = readChunk(in,buffers[current])) > 0) {
+				waitFor(pending);
+				final byte[] chunk = buffers[current];
+				final int length = read;
+				for(final Digester d : digesters) {
+					pending.add(digestExecutor.submit(new Runnable() {
+						public void run() {
+							d.update(chunk,0,length);
+						}
+					}));
+				}
+				current = 1-current;
+			}
+			waitFor(pending);
+		}
+		Map<String,String> results = new LinkedHashMap<String,String>();
+		for(Digester d : digesters) {
+			results.put(d.name,d.hex());
+		}
+		return results;
+	}
+
+	private static int readChunk(InputStream in, byte[] buffer) throws IOException {
+		int total = 0;
+		int read;
+		while(total < buffer.length && (read = in.read(buffer,total,buffer.length-total)) != -1) {
+			total += read;
+		}
+		return total;
+	}
+
+	private static void waitFor(List<Future<?>> pending) throws IOException {
+		try {
+			for(Future<?> f : pending) {
+				f.get();
+			}
+		}
+		catch(InterruptedException e) {
+			for(Future<?> f : pending) {
+				f.cancel(true);
+			}
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while calculating checksums");
+		}
+		catch(ExecutionException e) {
+			throw new IOException("Error calculating checksums",e.getCause());
+		}
+		pending.clear();
+	}
+
+	private static Digester createDigester(final String name) throws IOException {
+		if(name.equals(MD5)) {
+			final com.twmacinta.util.MD5 md5 = new com.twmacinta.util.MD5();
+			return new Digester(name) {
+				void update(byte[] b, int off, int len) {
+					md5.Update(b,off,len);
+				}
+				String hex() {
+					return md5.asHex();
+				}
+			};
+		}
+		if(name.equals("crc32")) {
+			final CRC32 crc = new CRC32();
+			return new Digester(name) {
+				void update(byte[] b, int off, int len) {
+					crc.update(b,off,len);
+				}
+				String hex() {
+					return String.format("%08x",crc.getValue());
+				}
+			};
+		}
+		if(!SUPPORTED.contains(name)) {
+			throw new IOException("Unsupported checksum "+name);
+		}
+		try {
+			//sha1 is SHA-1 and so on
+			final MessageDigest digest = MessageDigest.getInstance("SHA-"+name.substring(3));
+			return new Digester(name) {
+				void update(byte[] b, int off, int len) {
+					digest.update(b,off,len);
+				}
+				String hex() {
+					return com.twmacinta.util.MD5.asHex(digest.digest());
+				}
+			};
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("Unsupported checksum "+name,e);
+		}
+	}
+
+	private static abstract class Digester {
+		private String name;
+
+		private Digester(String name) {
+			this.name = name;
+		}
+
+		abstract void update(byte[] b, int off, int len);
+
+		abstract String hex();
+	}
+
+}
@@ -0,0 +1,374 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The content of a file being examined, shared by the tools that run inside the
+ * JVM so that the file is read from storage once instead of once per tool.  Small
+ * files are read into memory and larger files are mapped with
+ * {@link FileChannel#map}.  Each consumer gets its own stream over the shared
+ * buffer without copying it.
+ * <p>
+ * Tools that only look at the first bytes, such as magic number checks, share a
+ * view of the start of the same buffer from {@link #getHeader(int)}.
+ * <p>
+ * Fits opens an input for each file it examines and closes it when all tools are
+ * done.  While it is open tools get the same instance from {@link #get(File)}.  A
+ * tool used on its own gets a private instance.
+ * <p>
+ * Files too large to map are read with a new stream for each consumer.
+ */
+public class FitsInput {
+
+	//files smaller than this are read, larger ones are mapped
+	private static final int MAP_THRESHOLD = 64*1024;
+
+	private static Map<String,FitsInput> openInputs = new HashMap<String,FitsInput>();
+
+	private File file;
+	private int references;
+	private ByteBuffer content;
+	private boolean loaded;
+	//guarded by its own lock so that reading the whole file for checksums doesn't hold up header reads
+	private Map<String,String> checksums = new HashMap<String,String>();
+	private Object checksumLock = new Object();
+	//start of a file too large to map
+	private ByteBuffer header;
+	private AtomicInteger views = new AtomicInteger();
+	private int opens;
+	private long bytesRead;
+
+	private FitsInput(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Shares the content of the file with the tools until {@link #close()} is called
+	 * @param file
+	 * @return the shared input
+	 */
+	public static FitsInput open(File file) {
+		String key = file.getAbsolutePath();
+		synchronized(openInputs) {
+			FitsInput input = openInputs.get(key);
+			if(input == null) {
+				input = new FitsInput(file);
+				openInputs.put(key,input);
+			}
+			input.references++;
+			return input;
+		}
+	}
+
+	/**
+	 * @param file
+	 * @return the shared input for the file, or a new one if the file isn't open
+	 */
+	public static FitsInput get(File file) {
+		synchronized(openInputs) {
+			FitsInput input = openInputs.get(file.getAbsolutePath());
+			if(input != null) {
+				return input;
+			}
+		}
+		return new FitsInput(file);
+	}
+
+	/**
+	 * Stops sharing the content once every call to {@link #open(File)} is matched
+	 */
+	public void close() {
+		synchronized(openInputs) {
+			if(--references == 0) {
+				openInputs.remove(file.getAbsolutePath());
+			}
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return a stream over the whole content, which the caller must close
+	 * @throws IOException
+	 */
+	public InputStream getInputStream() throws IOException {
+		views.incrementAndGet();
+		ByteBuffer buffer = getContent();
+		if(buffer == null) {
+			synchronized(this) {
+				opens++;
+			}
+			return new CountingInputStream(new FileInputStream(file));
+		}
+		return new ByteBufferInputStream(buffer);
+	}
+
+	/**
+	 * Returns the first bytes of the file.  The buffer is shared, callers should
+	 * only use absolute gets or a duplicate.
+	 * @param size the number of bytes wanted
+	 * @return a read only buffer of up to size bytes, fewer if the file is shorter
+	 * @throws IOException
+	 */
+	public ByteBuffer getHeader(int size) throws IOException {
+		views.incrementAndGet();
+		ByteBuffer buffer = getContent();
+		if(buffer == null) {
+			buffer = readHeader(size);
+		}
+		else if(buffer.isDirect()) {
+			consumed(Math.min(size,buffer.limit()),true);
+		}
+		buffer.limit(Math.min(size,buffer.limit()));
+		return buffer.slice();
+	}
+
+	/**
+	 * Returns checksums of the content.  The requested checksums that haven't been
+	 * calculated yet are calculated in a single pass, so later calls for any of them
+	 * don't read the content again.
+	 * @param names names of the checksums, see {@link Checksums}
+	 * @param parallelThreshold files larger than this many bytes get a thread for
+	 * 	each checksum, 0 to always use a single thread
+	 * @return hex encoded checksums by name, in the order requested
+	 * @throws IOException
+	 */
+	public Map<String,String> getChecksums(List<String> names, long parallelThreshold) throws IOException {
+		synchronized(checksumLock) {
+			Set<String> missing = new LinkedHashSet<String>();
+			for(String name : names) {
+				if(!checksums.containsKey(name)) {
+					missing.add(name);
+				}
+			}
+			if(missing.isEmpty()) {
+				views.incrementAndGet();
+			}
+			else {
+				boolean parallel = parallelThreshold > 0 && file.length() > parallelThreshold;
+				InputStream in = getInputStream();
+				try {
+					checksums.putAll(Checksums.calculate(in,missing,parallel));
+				}
+				finally {
+					in.close();
+				}
+			}
+			Map<String,String> results = new LinkedHashMap<String,String>();
+			for(String name : names) {
+				results.put(name,checksums.get(name));
+			}
+			return results;
+		}
+	}
+
+	/**
+	 * @return number of times the content was requested
+	 */
+	public int getViewCount() {
+		return views.get();
+	}
+
+	/**
+	 * @return number of times the file was opened
+	 */
+	public synchronized int getOpenCount() {
+		return opens;
+	}
+
+	/**
+	 * @return number of bytes read from the file.  For a mapped file this is the
+	 * furthest any consumer read, as each page is only read from storage once.
+	 */
+	public synchronized long getBytesRead() {
+		return bytesRead;
+	}
+
+	/* A read only view of the content, or null if the file is too large to map */
+	private synchronized ByteBuffer getContent() throws IOException {
+		if(!loaded) {
+			long size = file.length();
+			if(size <= Integer.MAX_VALUE) {
+				FileInputStream in = new FileInputStream(file);
+				opens++;
+				try {
+					FileChannel channel = in.getChannel();
+					if(size < MAP_THRESHOLD) {
+						ByteBuffer buffer = ByteBuffer.allocate((int)size);
+						while(buffer.hasRemaining() && channel.read(buffer) != -1);
+						buffer.flip();
+						content = buffer;
+						bytesRead += buffer.limit();
+					}
+					else {
+						//the mapping stays valid after the channel is closed
+						content = channel.map(FileChannel.MapMode.READ_ONLY,0,size);
+					}
+				}
+				finally {
+					in.close();
+				}
+			}
+			loaded = true;
+		}
+		return content == null ? null : content.asReadOnlyBuffer();
+	}
+
+	/* Reads the start of a file that is too large to map, reusing the bytes already read */
+	private synchronized ByteBuffer readHeader(int size) throws IOException {
+		if(header == null || header.capacity() < size) {
+			ByteBuffer buffer = ByteBuffer.allocate(size);
+			FileInputStream in = new FileInputStream(file);
+			opens++;
+			try {
+				FileChannel channel = in.getChannel();
+				while(buffer.hasRemaining() && channel.read(buffer) != -1);
+			}
+			finally {
+				in.close();
+			}
+			buffer.flip();
+			bytesRead += buffer.limit();
+			header = buffer;
+		}
+		return header.asReadOnlyBuffer();
+	}
+
+	private synchronized void consumed(long position, boolean mapped) {
+		if(mapped) {
+			bytesRead = Math.max(bytesRead,position);
+		}
+		else {
+			bytesRead += position;
+		}
+	}
+
+	private class ByteBufferInputStream extends InputStream {
+		private ByteBuffer buffer;
+		private boolean mapped;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+			this.mapped = buffer.isDirect();
+		}
+
+		public int read() {
+			if(!buffer.hasRemaining()) {
+				return -1;
+			}
+			return buffer.get() & 0xff;
+		}
+
+		public int read(byte[] b, int off, int len) {
+			if(len == 0) {
+				return 0;
+			}
+			if(!buffer.hasRemaining()) {
+				return -1;
+			}
+			len = Math.min(len,buffer.remaining());
+			buffer.get(b,off,len);
+			return len;
+		}
+
+		public long skip(long n) {
+			int skip = (int)Math.max(0,Math.min(n,buffer.remaining()));
+			buffer.position(buffer.position()+skip);
+			return skip;
+		}
+
+		public int available() {
+			return buffer.remaining();
+		}
+
+		public boolean markSupported() {
+			return true;
+		}
+
+		public void mark(int readlimit) {
+			buffer.mark();
+		}
+
+		public void reset() {
+			buffer.reset();
+		}
+
+		public void close() {
+			if(mapped) {
+				consumed(buffer.position(),true);
+			}
+		}
+	}
+
+	private class CountingInputStream extends InputStream {
+		private InputStream in;
+		private long count;
+
+		private CountingInputStream(InputStream in) {
+			this.in = in;
+		}
+
+		public int read() throws IOException {
+			int b = in.read();
+			if(b != -1) {
+				count++;
+			}
+			return b;
+		}
+
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = in.read(b,off,len);
+			if(read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		public long skip(long n) throws IOException {
+			return in.skip(n);
+		}
+
+		public int available() throws IOException {
+			return in.available();
+		}
+
+		public void close() throws IOException {
+			in.close();
+			consumed(count,false);
+		}
+	}
+
+}
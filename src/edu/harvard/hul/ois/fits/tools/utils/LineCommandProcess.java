@@ -0,0 +1,118 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+import edu.harvard.hul.ois.fits.exceptions.FitsToolCLIException;
+
+/**
+ * A long running command line process that reads one request per line from
+ * standard input and answers each with one line on standard output.  Used to
+ * avoid starting a new process for every file.  Anything the process writes to
+ * standard error before answering is added to the output of the request, as
+ * CommandLine.exec does.  Instances are not thread safe.
+ */
+public class LineCommandProcess {
+
+	private Process process;
+	private Writer in;
+	private BufferedReader out;
+	private InputStream err;
+
+	public LineCommandProcess(List<String> cmd) throws FitsToolCLIException {
+		try {
+			process = new ProcessBuilder(cmd).start();
+		}
+		catch(IOException e) {
+			throw new FitsToolCLIException("Error starting external command line routine",e);
+		}
+		err = process.getErrorStream();
+		in = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()));
+		out = new BufferedReader(new InputStreamReader(process.getInputStream()));
+	}
+
+	/**
+	 * Sends a request to the process and waits for the answer.  If the process
+	 * fails it is destroyed and can not be used again.
+	 * @param request a single line of input
+	 * @return the line of output for the request, followed by any lines written
+	 * 	to standard error
+	 * @throws FitsToolCLIException
+	 */
+	public String exec(String request) throws FitsToolCLIException {
+		try {
+			in.write(request);
+			in.write("\n");
+			in.flush();
+			String line = out.readLine();
+			if(line == null) {
+				throw new IOException("process exited unexpectedly");
+			}
+			String errors = readErrors();
+			if(errors.length() > 0) {
+				line = line+"\n"+errors;
+			}
+			return line;
+		}
+		catch(IOException e) {
+			process.destroy();
+			throw new FitsToolCLIException("Error calling external command line routine",e);
+		}
+	}
+
+	/**
+	 * Closes standard input so the process exits
+	 */
+	public void close() {
+		try {
+			in.close();
+		}
+		catch(IOException e) {
+			process.destroy();
+		}
+	}
+
+	/* 
+	 * Reads what the process has written to standard error.  It is written before
+	 * the answer, so it is already waiting in the pipe once the answer has been read.
+	 */
+	private String readErrors() throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		byte[] buf = new byte[1024];
+		int available;
+		while((available = err.available()) > 0) {
+			int n = err.read(buf,0,Math.min(available,buf.length));
+			if(n < 0) {
+				break;
+			}
+			bos.write(buf,0,n);
+		}
+		return new String(bos.toByteArray()).trim();
+	}
+
+}
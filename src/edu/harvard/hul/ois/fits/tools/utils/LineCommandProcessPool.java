@@ -0,0 +1,116 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import edu.harvard.hul.ois.fits.exceptions.FitsToolCLIException;
+
+/**
+ * A pool of LineCommandProcesses running the same command.  Processes are started
+ * as needed up to the size of the pool, after which callers wait for an idle one.
+ * A process that fails is discarded and replaced.
+ */
+public class LineCommandProcessPool {
+
+	private List<String> command;
+	private int size;
+	private BlockingQueue<LineCommandProcess> idle = new LinkedBlockingQueue<LineCommandProcess>();
+	private List<LineCommandProcess> processes = new ArrayList<LineCommandProcess>();
+
+	/**
+	 * @param command the command used to start each process
+	 * @param size the maximum number of processes
+	 */
+	public LineCommandProcessPool(List<String> command, int size) {
+		this.command = command;
+		this.size = size;
+	}
+
+	/**
+	 * Sends a request to one of the pooled processes
+	 * @param request a single line of input
+	 * @return the output for the request
+	 * @throws FitsToolCLIException
+	 */
+	public String exec(String request) throws FitsToolCLIException {
+		LineCommandProcess process = acquire();
+		try {
+			String output = process.exec(request);
+			idle.add(process);
+			return output;
+		}
+		catch(FitsToolCLIException e) {
+			discard(process);
+			throw e;
+		}
+	}
+
+	private LineCommandProcess acquire() throws FitsToolCLIException {
+		try {
+			while(true) {
+				LineCommandProcess process = idle.poll();
+				if(process == null) {
+					process = start();
+				}
+				if(process == null) {
+					//all processes are busy, wait for one to be returned
+					process = idle.poll(1,TimeUnit.SECONDS);
+				}
+				if(process != null) {
+					return process;
+				}
+			}
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FitsToolCLIException("Interrupted while waiting for external command line routine",e);
+		}
+	}
+
+	/* Starts a new process if the pool isn't full */
+	private synchronized LineCommandProcess start() throws FitsToolCLIException {
+		if(processes.size() >= size) {
+			return null;
+		}
+		LineCommandProcess process = new LineCommandProcess(command);
+		processes.add(process);
+		return process;
+	}
+
+	private synchronized void discard(LineCommandProcess process) {
+		processes.remove(process);
+	}
+
+	/**
+	 * Stops all of the processes.  The pool starts new processes if it is used again.
+	 */
+	public synchronized void close() {
+		for(LineCommandProcess process : processes) {
+			process.close();
+		}
+		processes.clear();
+		idle.clear();
+	}
+
+}
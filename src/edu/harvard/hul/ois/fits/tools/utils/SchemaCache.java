@@ -0,0 +1,152 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools.utils;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Process wide cache of compiled XML Schemas keyed by path.  Each schema is
+ * compiled once and returned without locking.  If setCheckModified is turned on
+ * a schema is compiled again when its file has been modified since it was cached.
+ * A compiled Schema can be shared between threads but a Validator can't, so each
+ * thread is given its own Validator for each schema and reuses it.
+ */
+public class SchemaCache {
+
+	private static SchemaFactory sFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+	private static ConcurrentMap<String,CachedSchema> cache = new ConcurrentHashMap<String,CachedSchema>();
+	private static volatile boolean checkModified = false;
+
+	/**
+	 * @param check true to check the modification time of a schema each time it
+	 * 	is used, so that changes are picked up without restarting
+	 */
+	public static void setCheckModified(boolean check) {
+		checkModified = check;
+	}
+
+	/**
+	 * Returns the compiled schema, compiling it if it isn't cached or has changed
+	 * @param xsd path to the schema
+	 * @return compiled schema, safe to share between threads
+	 * @throws SAXException
+	 */
+	public static Schema getSchema(String xsd) throws SAXException {
+		return getCachedSchema(xsd).get().schema;
+	}
+
+	/**
+	 * Returns a Validator for the schema that belongs to the calling thread.  The
+	 * caller should set the error handler it needs before each use.
+	 * @param xsd path to the schema
+	 * @return a validator only to be used by the calling thread
+	 * @throws SAXException
+	 */
+	public static Validator getValidator(String xsd) throws SAXException {
+		return getCachedSchema(xsd).get().validators.get();
+	}
+
+	/**
+	 * Removes all compiled schemas from the cache
+	 */
+	public static void clear() {
+		cache.clear();
+	}
+
+	private static CachedSchema getCachedSchema(String xsd) {
+		File file = new File(xsd);
+		String key = file.getAbsolutePath();
+		CachedSchema cached = cache.get(key);
+		if(cached == null) {
+			cached = new CachedSchema(file);
+			CachedSchema existing = cache.putIfAbsent(key,cached);
+			if(existing != null) {
+				cached = existing;
+			}
+		}
+		return cached;
+	}
+
+	private static class CachedSchema {
+		private File file;
+		private volatile Compiled compiled;
+
+		private CachedSchema(File file) {
+			this.file = file;
+		}
+
+		private Compiled get() throws SAXException {
+			Compiled c = compiled;
+			if(c == null || (checkModified && file.lastModified() != c.lastModified)) {
+				c = compile();
+			}
+			if(c.error != null) {
+				throw c.error;
+			}
+			return c;
+		}
+
+		//only one thread compiles a given schema, the others wait for it
+		private synchronized Compiled compile() {
+			long modified = file.lastModified();
+			Compiled c = compiled;
+			if(c == null || (checkModified && modified != c.lastModified)) {
+				try {
+					//SchemaFactory isn't thread safe
+					synchronized(sFactory) {
+						c = new Compiled(sFactory.newSchema(file),null,modified);
+					}
+				}
+				catch(SAXException e) {
+					//don't compile a broken schema again until it changes
+					c = new Compiled(null,e,modified);
+				}
+				compiled = c;
+			}
+			return c;
+		}
+	}
+
+	private static class Compiled {
+		private final Schema schema;
+		private final SAXException error;
+		private final long lastModified;
+		private final ThreadLocal<Validator> validators = new ThreadLocal<Validator>() {
+			protected Validator initialValue() {
+				return schema.newValidator();
+			}
+		};
+
+		private Compiled(Schema schema, SAXException error, long lastModified) {
+			this.schema = schema;
+			this.error = error;
+			this.lastModified = lastModified;
+		}
+	}
+
+}
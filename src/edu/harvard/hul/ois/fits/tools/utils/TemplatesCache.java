@@ -0,0 +1,123 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools.utils;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * Process wide cache of compiled XSLT stylesheets keyed by path.  Compiling a
+ * stylesheet costs far more than running it, so each stylesheet is compiled once
+ * and only a Transformer is created for each transformation.  Cached stylesheets
+ * are returned without locking.  If setCheckModified is turned on a stylesheet is
+ * compiled again when its file has been modified since it was cached.
+ * <p>
+ * All stylesheets are compiled by a single Saxon TransformerFactory so that the
+ * documents passed to them can be built with the same Configuration.
+ */
+public class TemplatesCache {
+
+	private static TransformerFactory tFactory = TransformerFactory.newInstance("net.sf.saxon.TransformerFactoryImpl",null);
+	private static ConcurrentMap<String,CachedTemplates> cache = new ConcurrentHashMap<String,CachedTemplates>();
+	private static volatile boolean checkModified = false;
+
+	public static TransformerFactory getTransformerFactory() {
+		return tFactory;
+	}
+
+	/**
+	 * @param check true to check the modification time of a stylesheet each time it
+	 * 	is used, so that changes are picked up without restarting
+	 */
+	public static void setCheckModified(boolean check) {
+		checkModified = check;
+	}
+
+	/**
+	 * Returns the compiled stylesheet, compiling it if it isn't cached or has changed
+	 * @param xslt path to the stylesheet
+	 * @return compiled stylesheet, safe to share between threads
+	 * @throws TransformerConfigurationException
+	 */
+	public static Templates getTemplates(String xslt) throws TransformerConfigurationException {
+		File file = new File(xslt);
+		String key = file.getAbsolutePath();
+		CachedTemplates cached = cache.get(key);
+		if(cached == null) {
+			cached = new CachedTemplates(file);
+			CachedTemplates existing = cache.putIfAbsent(key,cached);
+			if(existing != null) {
+				cached = existing;
+			}
+		}
+		return cached.get();
+	}
+
+	/**
+	 * Removes all compiled stylesheets from the cache
+	 */
+	public static void clear() {
+		cache.clear();
+	}
+
+	private static class CachedTemplates {
+		private File file;
+		private volatile Compiled compiled;
+
+		private CachedTemplates(File file) {
+			this.file = file;
+		}
+
+		private Templates get() throws TransformerConfigurationException {
+			Compiled c = compiled;
+			if(c != null && (!checkModified || file.lastModified() == c.lastModified)) {
+				return c.templates;
+			}
+			return compile();
+		}
+
+		//only one thread compiles a given stylesheet, the others wait for it
+		private synchronized Templates compile() throws TransformerConfigurationException {
+			long modified = file.lastModified();
+			Compiled c = compiled;
+			if(c == null || (checkModified && modified != c.lastModified)) {
+				c = new Compiled(tFactory.newTemplates(new StreamSource(file)),modified);
+				compiled = c;
+			}
+			return c.templates;
+		}
+	}
+
+	private static class Compiled {
+		private final Templates templates;
+		private final long lastModified;
+
+		private Compiled(Templates templates, long lastModified) {
+			this.templates = templates;
+			this.lastModified = lastModified;
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.tools.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jdom.Document;
+import org.jdom.JDOMException;
+import org.jdom.input.SAXBuilder;
+
+/**
+ * Holds the XML a tool library writes to an OutputStream and parses it straight
+ * from the buffer, without copying it into a byte array or String first.  The
+ * parser reads the encoding from the XML declaration.
+ * <p>
+ * A tool that is only used by one thread at a time can keep a buffer and reset it
+ * for each file.  A buffer grown past MAX_KEPT bytes by a large output is released
+ * when it is reset.
+ */
+public class XmlBuffer extends ByteArrayOutputStream {
+
+	private static final int MAX_KEPT = 1024*1024;
+
+	private int initialSize;
+
+	public XmlBuffer(int size) {
+		super(size);
+		initialSize = size;
+	}
+
+	/**
+	 * Parses the XML written to the buffer
+	 * @param builder
+	 * @return the document
+	 * @throws JDOMException
+	 * @throws IOException
+	 */
+	public synchronized Document build(SAXBuilder builder) throws JDOMException, IOException {
+		return builder.build(getInputStream());
+	}
+
+	/**
+	 * @return a stream that reads what has been written to the buffer, without copying it
+	 */
+	public synchronized InputStream getInputStream() {
+		return new ByteArrayInputStream(buf,0,count);
+	}
+
+	public synchronized void reset() {
+		super.reset();
+		if(buf.length > MAX_KEPT) {
+			buf = new byte[initialSize];
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.junit;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+
+import org.jdom.Document;
+import org.jdom.input.SAXBuilder;
+import org.junit.Test;
+
+import edu.harvard.hul.ois.fits.Fits;
+import edu.harvard.hul.ois.fits.FitsServer;
+
+import org.custommonkey.xmlunit.*;
+
+
+public class FitsServerTest extends XMLTestCase {
+
+	@Test
+	public void testExamine() throws Exception {
+		Fits fits = new Fits("");
+		FitsServer server = new FitsServer(fits,0,2,2);
+		server.start();
+		try {
+			String path = new File("testfiles/test.jp2").getAbsolutePath();
+			HttpURLConnection conn = get(server,"/examine?file="+URLEncoder.encode(path,"UTF-8"));
+			assertEquals(200,conn.getResponseCode());
+			InputStream in = conn.getInputStream();
+			Document doc = new SAXBuilder().build(in);
+			in.close();
+			assertEquals("fits",doc.getRootElement().getName());
+
+			conn = get(server,"/examine?file="+URLEncoder.encode(path+".missing","UTF-8"));
+			assertEquals(404,conn.getResponseCode());
+
+			conn = get(server,"/examine");
+			assertEquals(400,conn.getResponseCode());
+		}
+		finally {
+			server.stop(10);
+			fits.shutdown();
+		}
+	}
+
+	private HttpURLConnection get(FitsServer server, String request) throws Exception {
+		URL url = new URL("http://localhost:"+server.getPort()+request);
+		return (HttpURLConnection)url.openConnection();
+	}
+
+}
@@ -0,0 +1,83 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.junit;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.harvard.hul.ois.fits.tools.ffident.FormatDescription;
+import edu.harvard.hul.ois.fits.tools.ffident.MagicMatcher;
+
+import org.custommonkey.xmlunit.*;
+
+
+public class MagicMatcherTest extends XMLTestCase {
+
+	@Test
+	public void testFirstMatchAtSameOffset() throws Exception {
+		List<FormatDescription> descriptions = new ArrayList<FormatDescription>();
+		descriptions.add(description("short",0,"AB"));
+		descriptions.add(description("long",0,"ABCD"));
+		MagicMatcher matcher = new MagicMatcher(descriptions);
+		assertEquals("short",match(matcher,"ABCDEF"));
+		assertEquals("short",match(matcher,"ABXX"));
+		
+		//the longer signature wins when it comes first
+		descriptions.add(0,descriptions.remove(1));
+		matcher = new MagicMatcher(descriptions);
+		assertEquals("long",match(matcher,"ABCDEF"));
+		assertEquals("short",match(matcher,"ABXX"));
+		assertEquals(4,matcher.getMinBufferSize());
+	}
+
+	@Test
+	public void testFirstMatchAtDifferentOffsets() throws Exception {
+		List<FormatDescription> descriptions = new ArrayList<FormatDescription>();
+		descriptions.add(description("later offset",2,"CD"));
+		descriptions.add(description("longer",0,"ABCD"));
+		MagicMatcher matcher = new MagicMatcher(descriptions);
+		assertEquals("later offset",match(matcher,"ABCDEF"));
+		assertEquals("later offset",match(matcher,"XXCD"));
+		
+		descriptions.add(0,descriptions.remove(1));
+		matcher = new MagicMatcher(descriptions);
+		assertEquals("longer",match(matcher,"ABCDEF"));
+		assertEquals("later offset",match(matcher,"XXCD"));
+		
+		//a header too short for a signature does not match it
+		assertEquals(null,match(matcher,"ABC"));
+	}
+
+	private static FormatDescription description(String name, int offset, String magic) {
+		FormatDescription desc = new FormatDescription();
+		desc.setShortName(name);
+		desc.setOffset(new Integer(offset));
+		desc.setMagicBytes(magic.getBytes());
+		return desc;
+	}
+
+	private static String match(MagicMatcher matcher, String header) {
+		FormatDescription desc = matcher.match(ByteBuffer.wrap(header.getBytes()));
+		return desc == null ? null : desc.getShortName();
+	}
+
+}
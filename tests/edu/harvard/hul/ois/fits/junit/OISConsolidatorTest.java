@@ -0,0 +1,221 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.junit;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jdom.Namespace;
+import org.jdom.output.Format;
+import org.jdom.output.XMLOutputter;
+import org.jdom.xpath.XPath;
+import org.junit.Test;
+
+import edu.harvard.hul.ois.fits.Fits;
+import edu.harvard.hul.ois.fits.consolidation.OISConsolidator;
+import edu.harvard.hul.ois.fits.consolidation.ToolOutputConsolidator;
+import edu.harvard.hul.ois.fits.exceptions.FitsConfigurationException;
+import edu.harvard.hul.ois.fits.identity.FitsIdentity;
+import edu.harvard.hul.ois.fits.tools.Tool;
+import edu.harvard.hul.ois.fits.tools.ToolInfo;
+import edu.harvard.hul.ois.fits.tools.ToolOutput;
+
+import org.custommonkey.xmlunit.*;
+
+
+public class OISConsolidatorTest extends XMLTestCase {
+
+	@Test
+	public void testSameOutputAsXPath() throws Exception {
+		compare(false);
+	}
+
+	@Test
+	public void testRepeatedElements() throws Exception {
+		//the first element with a name has to be taken from each tool, wherever it is
+		compare(true);
+	}
+
+	private void compare(boolean repeat) throws Exception {
+		Fits fits = new Fits("");
+		ToolOutputConsolidator indexed = new OISConsolidator();
+		ToolOutputConsolidator xpath = new XPathConsolidator();
+		XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
+		try {
+			for(File input : new File("testfiles").listFiles()) {
+				if(!input.isFile()) {
+					continue;
+				}
+				//consolidation changes the tool output so each consolidator gets its own
+				String expected = outputter.outputString(consolidate(xpath,fits,input,repeat));
+				String actual = outputter.outputString(consolidate(indexed,fits,input,repeat));
+				assertEquals(input.getName(),expected,actual);
+			}
+		}
+		finally {
+			fits.shutdown();
+		}
+	}
+
+	private Document consolidate(ToolOutputConsolidator consolidator, Fits fits, File input, boolean repeat) {
+		String name = input.getName().toLowerCase();
+		String ext = name.substring(name.lastIndexOf(".")+1);
+		List<ToolOutput> results = new ArrayList<ToolOutput>();
+		for(Tool t : fits.getToolbelt().getTools()) {
+			boolean run = t.hasIncludedExtensions() ? t.hasIncludedExtension(ext) : !t.hasExcludedExtension(ext);
+			if(t.isEnabled() && run) {
+				try {
+					results.add(t.extractInfo(input));
+				}
+				catch(Exception e) {
+					//Fits leaves out the output of a tool that fails
+				}
+			}
+		}
+		if(repeat) {
+			for(ToolOutput result : results) {
+				if(result != null && result.getFitsXml() != null) {
+					repeatFileInfo(result.getFitsXml().getRootElement());
+				}
+			}
+		}
+		Document doc = consolidator.processResults(results).getFitsXml();
+		doc.getRootElement().removeAttribute("timestamp");
+		return doc;
+	}
+
+	/*
+	 * Adds another value for each fileinfo element, after the first in fileinfo
+	 * and before it in filestatus
+	 */
+	private void repeatFileInfo(Element root) {
+		Namespace ns = root.getNamespace();
+		Element fileinfo = root.getChild("fileinfo",ns);
+		if(fileinfo == null) {
+			return;
+		}
+		Element filestatus = root.getChild("filestatus",ns);
+		if(filestatus == null) {
+			filestatus = new Element("filestatus",ns);
+			root.addContent(filestatus);
+		}
+		List<Element> elements = new ArrayList<Element>();
+		for(Object child : fileinfo.getChildren()) {
+			elements.add((Element)child);
+		}
+		for(Element e : elements) {
+			Element later = (Element)e.clone();
+			later.setText(e.getText()+" later");
+			fileinfo.addContent(later);
+			Element elsewhere = (Element)e.clone();
+			elsewhere.setText(e.getText()+" elsewhere");
+			filestatus.addContent(elsewhere);
+		}
+	}
+
+	/*
+	 * Looks up the elements to consolidate with XPath, as OISConsolidator did
+	 * before it indexed the tool output by element name
+	 */
+	private static class XPathConsolidator extends OISConsolidator {
+
+		private XPathConsolidator() throws FitsConfigurationException {
+			super();
+		}
+
+		protected void consolidateElements(List<ToolOutput> results, List<FitsIdentity> identitySections, Element fits) {
+			try {
+				consolidateSection(results,fits,"fileinfo",false);
+				if(identitySections.size() > 0) {
+					filterToolOutput(identitySections.get(0),results);
+				}
+				consolidateSection(results,fits,"filestatus",false);
+				consolidateSection(results,fits,"metadata",true);
+			}
+			catch(JDOMException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		private void consolidateSection(List<ToolOutput> results, Element fits, String section, boolean typed) throws JDOMException {
+			Element s = new Element(section,fitsNS);
+			fits.addContent(s);
+			Element e;
+			while((e = findAnElement(results,"/fits:fits/fits:"+section,typed)) != null) {
+				Element parent = s;
+				if(typed) {
+					String type = e.getParentElement().getName();
+					if(!parentContainsChild(s,type)) {
+						parent = new Element(type,fitsNS);
+						s.addContent(parent);
+					}
+					else {
+						parent = s.getChild(type,fitsNS);
+					}
+				}
+				List<Element> fitsElements = new ArrayList<Element>();
+				for(ToolOutput result : results) {
+					Document dom = result.getFitsXml();
+					if(dom == null) {
+						continue;
+					}
+					Element match = (Element)xpath("//fits:"+e.getName()).selectSingleNode(dom);
+					if(match != null) {
+						ToolInfo toolInfo = result.getTool().getToolInfo();
+						match.setAttribute("toolname",toolInfo.getName());
+						match.setAttribute("toolversion",toolInfo.getVersion());
+						fitsElements.add(match);
+						match.getParent().removeContent(match);
+					}
+				}
+				parent.addContent(resolveElements(fitsElements));
+			}
+		}
+
+		private Element findAnElement(List<ToolOutput> results, String query, boolean useChildren) throws JDOMException {
+			for(ToolOutput result : results) {
+				Document dom = result.getFitsXml();
+				if(dom == null) {
+					continue;
+				}
+				Element e = (Element)xpath(query).selectSingleNode(dom);
+				if(e != null && e.getChildren().size() > 0) {
+					if(useChildren) {
+						e = (Element)e.getChildren().get(0);
+					}
+					if(e.getChildren().size() > 0) {
+						return (Element)e.getChildren().get(0);
+					}
+				}
+			}
+			return null;
+		}
+
+		private XPath xpath(String query) throws JDOMException {
+			XPath xpath = XPath.newInstance(query);
+			xpath.addNamespace("fits",Fits.XML_NAMESPACE);
+			return xpath;
+		}
+	}
+
+}
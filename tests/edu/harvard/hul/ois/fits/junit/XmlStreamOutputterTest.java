@@ -0,0 +1,151 @@
+/* 
+ * Copyright 2009 Harvard University Library
+ * 
+ * This file is part of FITS (File Information Tool Set).
+ * 
+ * FITS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FITS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FITS.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package edu.harvard.hul.ois.fits.junit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringReader;
+import java.util.Iterator;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.Namespace;
+import org.jdom.filter.ElementFilter;
+import org.jdom.input.SAXBuilder;
+import org.jdom.output.Format;
+import org.jdom.output.XMLOutputter;
+import org.junit.Test;
+
+import edu.harvard.hul.ois.fits.Fits;
+import edu.harvard.hul.ois.fits.FitsOutput;
+import edu.harvard.hul.ois.fits.XmlStreamOutputter;
+import edu.harvard.hul.ois.ots.schemas.XmlContent.XmlContent;
+
+import org.custommonkey.xmlunit.*;
+
+
+public class XmlStreamOutputterTest extends XMLTestCase {
+
+	@Test
+	public void testSameDocument() throws Exception {
+		Fits fits = new Fits("");
+		SAXBuilder builder = new SAXBuilder();
+		XMLOutputter raw = new XMLOutputter(Format.getRawFormat());
+		XMLOutputter pretty = new XMLOutputter(Format.getPrettyFormat());
+		try {
+			for(File input : new File("testfiles").listFiles()) {
+				if(!input.isFile()) {
+					continue;
+				}
+				Document doc = fits.examine(input).getFitsXml();
+
+				//without indenting the text is written as it is
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				new XmlStreamOutputter(false).output(doc,out);
+				Document written = builder.build(new ByteArrayInputStream(out.toByteArray()));
+				assertXMLEqual(input.getName(),raw.outputString(doc),raw.outputString(written));
+
+				//indenting only changes whitespace that the pretty format trims
+				out = new ByteArrayOutputStream();
+				new XmlStreamOutputter(true).output(doc,out);
+				written = builder.build(new ByteArrayInputStream(out.toByteArray()));
+				assertEquals(input.getName(),pretty.outputString(doc),pretty.outputString(written));
+			}
+		}
+		finally {
+			fits.shutdown();
+		}
+	}
+
+	@Test
+	public void testStandardCombinedFormat() throws Exception {
+		Fits fits = new Fits("");
+		SAXBuilder builder = new SAXBuilder();
+		Namespace ns = Namespace.getNamespace(Fits.XML_NAMESPACE);
+		try {
+			for(File input : new File("testfiles").listFiles()) {
+				if(!input.isFile()) {
+					continue;
+				}
+				FitsOutput result = fits.examine(input);
+				XmlContent xml = result.getStandardXmlContent();
+				result.addStandardCombinedFormat();
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				result.write(out);
+
+				//the standard XML is written into the FITS XML, which must still parse
+				Document written = builder.build(new ByteArrayInputStream(out.toByteArray()));
+				Iterator<?> found = written.getRootElement().getDescendants(new ElementFilter("standard",ns));
+				Element standard = found.hasNext() ? (Element)found.next() : null;
+				if(xml == null) {
+					assertNull(input.getName(),standard);
+				}
+				else {
+					assertNotNull(input.getName(),standard);
+					assertEquals(input.getName(),1,standard.getChildren().size());
+				}
+			}
+		}
+		finally {
+			fits.shutdown();
+		}
+	}
+
+	@Test
+	public void testStandardCombinedFormatInDocument() throws Exception {
+		Fits fits = new Fits("");
+		SAXBuilder builder = new SAXBuilder();
+		XMLOutputter raw = new XMLOutputter(Format.getRawFormat());
+		Namespace ns = Namespace.getNamespace(Fits.XML_NAMESPACE);
+		try {
+			for(File input : new File("testfiles").listFiles()) {
+				if(!input.isFile()) {
+					continue;
+				}
+				FitsOutput result = fits.examine(input);
+				XmlContent xml = result.getStandardXmlContent();
+				result.addStandardCombinedFormat();
+				//adding it again doesn't add another standard element
+				result.addStandardCombinedFormat();
+
+				//the standard XML is in the document, for callers that serialize it themselves
+				Iterator<?> found = result.getFitsXml().getRootElement().getDescendants(new ElementFilter("standard",ns));
+				Element standard = found.hasNext() ? (Element)found.next() : null;
+				if(xml == null) {
+					assertNull(input.getName(),standard);
+					continue;
+				}
+				assertNotNull(input.getName(),standard);
+				assertFalse(input.getName(),found.hasNext());
+				assertEquals(input.getName(),1,standard.getChildren().size());
+
+				//and is kept when the document is written with XMLOutputter and parsed again
+				Document written = builder.build(new StringReader(raw.outputString(result.getFitsXml())));
+				found = written.getRootElement().getDescendants(new ElementFilter("standard",ns));
+				assertTrue(input.getName(),found.hasNext());
+				assertEquals(input.getName(),raw.outputString(standard),raw.outputString((Element)found.next()));
+			}
+		}
+		finally {
+			fits.shutdown();
+		}
+	}
+
+}